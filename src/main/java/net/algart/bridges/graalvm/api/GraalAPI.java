@@ -243,7 +243,12 @@ public class GraalAPI {
 
     public Object loadScalar(Port port, String defaultValue) {
         Objects.requireNonNull(port, "Null port");
-        final String value = port.getData(SScalar.class, true).getValueOrDefault(defaultValue);
+        final SScalar scalar = port.getData(SScalar.class, true);
+        if (convertInputScalarToNumber && scalar.isInitialized() && scalar.isTypedNumber()) {
+            return scalar.toDouble();
+            // - no need to format and parse the string
+        }
+        final String value = scalar.getValueOrDefault(defaultValue);
         if (value != null && convertInputScalarToNumber) {
             try {
                 return Double.valueOf(value);
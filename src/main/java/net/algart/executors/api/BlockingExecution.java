@@ -0,0 +1,50 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api;
+
+/**
+ * Optional interface, that can be implemented by {@link ExecutionBlock} class: see {@link #isBlocking()} method.
+ * It is used by the chains, executed in the {@link net.algart.executors.api.chains.ChainExecutionMode#VIRTUAL
+ * virtual} execution mode.
+ */
+public interface BlockingExecution {
+    /**
+     * If <code>true</code>, this executor spends most of its execution time in waiting for external resources
+     * (disk, network, another process, an external interpreter like Python), and not in calculations
+     * in the current thread.
+     *
+     * <p>Such executors are not limited by the maximal number of simultaneously executed CPU-bound blocks
+     * in the {@link net.algart.executors.api.chains.ChainExecutionMode#VIRTUAL virtual} execution mode,
+     * so their waiting can overlap with the work of other blocks.
+     *
+     * <p>By default, this method returns <code>true</code>. You may override it, if the behaviour depends
+     * on the parameters of the executor.
+     *
+     * @return whether this executor mostly waits for I/O operations.
+     */
+    default boolean isBlocking() {
+        return true;
+    }
+}
@@ -977,6 +977,14 @@ public abstract class ExecutionBlock extends PropertyChecker implements AutoClos
         return this instanceof ReadOnlyExecutionInput && ((ReadOnlyExecutionInput) this).isReadOnly();
     }
 
+    public final boolean isBlockingExecution() {
+        return this instanceof BlockingExecution && ((BlockingExecution) this).isBlocking();
+    }
+
+    public final boolean isNonDeterministicExecution() {
+        return this instanceof NonDeterministicExecution && ((NonDeterministicExecution) this).isNonDeterministic();
+    }
+
     public final boolean isClosed() {
         return closed;
     }
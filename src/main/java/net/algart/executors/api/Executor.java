@@ -399,6 +399,9 @@ public abstract class Executor extends ExecutionBlock {
     @Override
     public void execute(ExecutionMode executionMode) {
         Objects.requireNonNull(executionMode, "Null executionMode");
+        final ExecutorExecutionEvent event = new ExecutorExecutionEvent();
+        event.begin();
+        // - no-op while the event is not enabled by JFR recording
         long t1 = System.nanoTime(), t1Processing, t2Processing;
         resetTiming();
         if (isCancellingExecutionRequested()) {
@@ -490,6 +493,15 @@ public abstract class Executor extends ExecutionBlock {
             Timing.INSTANCE.accumulate(
                     t2 - t1, processingTime, inputTime, outputTime, serviceTime.get(), systemTime);
         }
+        if (event.shouldCommit()) {
+            event.executorId = getExecutorId();
+            event.executorClass = getClass();
+            event.inputTime = inputTime;
+            event.processingTime = processingTime;
+            event.outputTime = outputTime;
+            event.serviceTime = serviceTime.get();
+            event.commit();
+        }
     }
 
 /*  // Deprecated logic of selecting port to preview and auto-contrasting
@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.api;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event, describing one call of {@link Executor#execute(ExecutionMode)}.
+ *
+ * <p>The event is disabled by default: it is recorded only if the recording explicitly enables
+ * <code>net.algart.executors.ExecutorExecution</code>. While it is disabled, the JIT compiler removes
+ * all calls of the event methods, so the executors work without any additional overhead.
+ *
+ * <p>The times are the same as ones, accumulated by {@link Executor#isTimingEnabled() timing}
+ * and written in the debug log.
+ */
+@Name("net.algart.executors.ExecutorExecution")
+@Label("Executor Execution")
+@Category({"AlgART", "Executors"})
+@Description("Execution of one executor")
+@Enabled(false)
+@StackTrace(false)
+final class ExecutorExecutionEvent extends Event {
+    @Label("Executor ID")
+    String executorId;
+
+    @Label("Executor Class")
+    Class<?> executorClass;
+
+    @Label("Input Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long inputTime;
+
+    @Label("Processing Time")
+    @Description("Processing time without input, output and service time")
+    @Timespan(Timespan.NANOSECONDS)
+    long processingTime;
+
+    @Label("Output Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long outputTime;
+
+    @Label("Service Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long serviceTime;
+}
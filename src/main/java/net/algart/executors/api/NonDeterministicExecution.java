@@ -0,0 +1,47 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api;
+
+/**
+ * Optional interface, that can be implemented by {@link ExecutionBlock} class: see {@link #isNonDeterministic()}
+ * method. It is used by the chains with enabled {@link net.algart.executors.api.chains.Chain#setMemoization(boolean)
+ * memoization}: results of such executors are never cached.
+ */
+public interface NonDeterministicExecution {
+    /**
+     * If <code>true</code>, the results of this executor can differ for the same parameters and input data,
+     * or the execution has some side effects (like writing files or logging), or the executor
+     * stores some state between calls (like loops or "read next file" functions).
+     * In this case, the executor must be executed every time, even if its inputs did not change.
+     *
+     * <p>By default, this method returns <code>true</code>. You may override it, if the behaviour depends
+     * on the parameters of the executor.
+     *
+     * @return whether this executor cannot be replaced with the cached results of its previous call.
+     */
+    default boolean isNonDeterministic() {
+        return true;
+    }
+}
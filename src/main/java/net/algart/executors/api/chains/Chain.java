@@ -24,6 +24,7 @@
 
 package net.algart.executors.api.chains;
 
+import net.algart.arrays.Arrays;
 import net.algart.executors.api.ExecutionBlock;
 import net.algart.executors.api.Executor;
 import net.algart.executors.api.data.Data;
@@ -34,13 +35,44 @@ import net.algart.executors.api.system.ExecutorNotFoundException;
 import net.algart.executors.api.system.InstantiationMode;
 import net.algart.executors.modules.core.common.TimingStatistics;
 
+import java.io.IOError;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public final class Chain implements AutoCloseable {
+    public static final int DEFAULT_MAXIMAL_NUMBER_OF_CPU_BOUND_BLOCKS = Math.max(1,
+            Arrays.SystemSettings.getIntProperty(
+                    "net.algart.executors.api.maxCpuBoundBlocks", Runtime.getRuntime().availableProcessors()));
+
+    private static final boolean USE_READY_QUEUE_SCHEDULER = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.readyQueueScheduler", true);
+    // - can be set to false for debugging needs; then the chain will be executed by the old recursive algorithm
+    // ChainBlock.executeWithAllDependentInputs, pulling all necessary blocks from the outputs
+    // (note: that algorithm always uses the common fork-join pool and ignores the execution mode)
+
+    private static final boolean DEFAULT_MEMOIZATION = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.memoization", false);
+    private static final boolean DEFAULT_EARLY_DATA_RELEASE = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.earlyDataRelease", false);
+    private static final boolean DEFAULT_LOOP_INVARIANT_HOISTING = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.loopInvariantHoisting", false);
+    private static final boolean DEFAULT_PIPELINED_LOOPS = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.pipelinedLoops", false);
+    private static final boolean DEFAULT_ADAPTIVE_FORKING = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.adaptiveForking", false);
+    private static final boolean DEFAULT_TRACING = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.tracing", false);
+    private static final boolean DEFAULT_SPECULATIVE_EXECUTION = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.speculativeExecution", false);
+    private static final double DEFAULT_MAXIMAL_SPECULATION_TIME = Math.max(0, Arrays.SystemSettings.getIntProperty(
+            "net.algart.executors.api.maxSpeculationTime", 100));
+    // - in milliseconds
+
     private static final AtomicLong CURRENT_CONTEXT_ID = new AtomicLong(99000000000L);
     // - Some magic value helps to reduce the chance of accidental coincidence with other contextIDs,
     // probably used in the system in other ways (99 is an ASCII code of letter 'c').
@@ -53,8 +85,13 @@ public final class Chain implements AutoCloseable {
     private final ExecutorFactory executorFactory;
     // - Usually should be not-null. If null, the chain will be unable to create executors.
     private final Map<String, ChainBlock> allBlocks = new LinkedHashMap<>();
+    private final Object allBlocksModificationLock = new Object();
+    // - allBlocks is modified only under this lock, so that interrupt() can read it while execution,
+    // when chainLock is occupied
     private final Map<String, ChainPort<?>> allPorts = new LinkedHashMap<>();
     private final Set<ChainLink> allLinks = new LinkedHashSet<>();
+    private final Map<String, String> inlinedParameters = new LinkedHashMap<>();
+    // - block ID -> value of the parameter of the inlined sub-chain, passed to this block (see inlineSubChain)
 
     private boolean autogeneratedCategory = false;
     private String category = null;
@@ -72,6 +109,18 @@ public final class Chain implements AutoCloseable {
     private volatile boolean executeAll = false;
     private volatile boolean ignoreExceptions = false;
     private volatile boolean timingByExecutorsEnabled = false;
+    private volatile int poolSize = ChainPool.DEFAULT_MAXIMAL_SIZE;
+    private volatile ChainExecutionMode executionMode = ChainExecutionMode.FORK_JOIN;
+    private volatile int maximalNumberOfCpuBoundBlocks = DEFAULT_MAXIMAL_NUMBER_OF_CPU_BOUND_BLOCKS;
+    private volatile int parallelism = 0;
+    private volatile boolean memoization = DEFAULT_MEMOIZATION;
+    private volatile boolean earlyDataRelease = DEFAULT_EARLY_DATA_RELEASE;
+    private volatile boolean loopInvariantHoisting = DEFAULT_LOOP_INVARIANT_HOISTING;
+    private volatile boolean pipelinedLoops = DEFAULT_PIPELINED_LOOPS;
+    private volatile boolean adaptiveForking = DEFAULT_ADAPTIVE_FORKING;
+    private volatile boolean tracing = DEFAULT_TRACING;
+    private volatile boolean speculativeExecution = DEFAULT_SPECULATIVE_EXECUTION;
+    private volatile double maximalSpeculationTime = DEFAULT_MAXIMAL_SPECULATION_TIME;
     // - This flag enables executors, called from the chain, to collect statistics about their timing.
     // By default, disabled: measuring time while multithreading execution cannot be correct;
     // instead, we will measure the time of SubChain executor, which executes this chain.
@@ -81,14 +130,35 @@ public final class Chain implements AutoCloseable {
     private volatile List<ChainBlock> allInputs = null;
     private volatile List<ChainBlock> allOutputs = null;
     private volatile List<ChainBlock> allData = null;
+    private volatile ChainExecutionPlan executionPlan = null;
+    private volatile ChainPool pool = null;
+    private ChainForkJoinPool forkJoinPool = null;
+    // - guarded by forkJoinPoolLock; acquired while the first usage and released by freeResources()
+    private final Object forkJoinPoolLock = new Object();
 
     private final Object chainLock = new Object();
     // - We must not execute the same chain from different threads:
     // setting and passing input data and parameter will interfere.
     final Object blocksInteractionLock = new Object();
     final AtomicInteger executionIndex = new AtomicInteger(0);
+    final AtomicLong executionCpuTime = new AtomicLong(0);
+    final AtomicLong executionAllocatedBytes = new AtomicLong(0);
+    // - summary CPU time and allocated memory of all blocks in the last execution, measured if timing is enabled
     volatile boolean needToRepeat = false;
+    volatile boolean retainingResults = false;
+    // - set while executeIncremental(): data must be copied between blocks instead of moving
+    volatile ChainTrace trace = null;
+    // - the trace of the current execution, if tracing is enabled
+    private volatile ChainTrace lastTrace = null;
+    private final AtomicLong retainedBytes = new AtomicLong(0);
+    private final AtomicLong peakRetainedBytes = new AtomicLong(0);
     private volatile Executor caller = null;
+    private volatile boolean interruptionRequested = false;
+    private final Object interruptionLock = new Object();
+    private Object currentAsyncExecution = null;
+    // - guarded by interruptionLock
+    private CompletableFuture<?> lastAsyncRequest = CompletableFuture.completedFuture(null);
+    // - guarded by interruptionLock; every new request of executeAsync is started after finishing this one
 
     private Chain(Executor executionContext, String id, ExecutorFactory executorFactory) {
         this.contextId = CURRENT_CONTEXT_ID.getAndIncrement();
@@ -117,12 +187,26 @@ public final class Chain implements AutoCloseable {
         this.executeAll = chain.executeAll;
         this.ignoreExceptions = chain.ignoreExceptions;
         this.timingByExecutorsEnabled = chain.timingByExecutorsEnabled;
+        this.poolSize = chain.poolSize;
+        this.executionMode = chain.executionMode;
+        this.maximalNumberOfCpuBoundBlocks = chain.maximalNumberOfCpuBoundBlocks;
+        this.parallelism = chain.parallelism;
+        this.memoization = chain.memoization;
+        this.earlyDataRelease = chain.earlyDataRelease;
+        this.loopInvariantHoisting = chain.loopInvariantHoisting;
+        this.pipelinedLoops = chain.pipelinedLoops;
+        this.adaptiveForking = chain.adaptiveForking;
+        this.tracing = chain.tracing;
+        this.speculativeExecution = chain.speculativeExecution;
+        this.maximalSpeculationTime = chain.maximalSpeculationTime;
 
         this.customChainInformation = chain.customChainInformation;
 
         this.allInputs = null;
         this.allOutputs = null;
         this.allData = null;
+        this.executionPlan = null;
+        this.pool = null;
         // - like in default constructor: they will be automatically recalculated and cached (see getAllInputs etc.)
         this.needToRepeat = false;
         this.caller = null;
@@ -131,6 +215,7 @@ public final class Chain implements AutoCloseable {
         chain.allBlocks.values().forEach(chainBlock -> this.addBlock(chainBlock.cleanCopy(this)));
         // - also fills this.allPorts
         chain.allLinks.forEach(this::addLink);
+        this.inlinedParameters.putAll(chain.inlinedParameters);
     }
 
     public static Chain newInstance(Executor executionContext, String id, ExecutorFactory executorFactory) {
@@ -190,6 +275,40 @@ public final class Chain implements AutoCloseable {
         result.setExecuteAll(execution.isAll());
         result.setMultithreading(execution.isMultithreading());
         result.setIgnoreExceptions(execution.isIgnoreExceptions());
+        if (execution.getPoolSize() != null) {
+            result.setPoolSize(execution.getPoolSize());
+        }
+        result.setExecutionMode(execution.getMode());
+        if (execution.getMaxCpuBoundBlocks() != null) {
+            result.setMaximalNumberOfCpuBoundBlocks(execution.getMaxCpuBoundBlocks());
+        }
+        if (execution.getParallelism() != null) {
+            result.setParallelism(execution.getParallelism());
+        }
+        if (execution.isMemoization()) {
+            result.setMemoization(true);
+        }
+        if (execution.isEarlyDataRelease()) {
+            result.setEarlyDataRelease(true);
+        }
+        if (execution.isLoopInvariantHoisting()) {
+            result.setLoopInvariantHoisting(true);
+        }
+        if (execution.isPipelinedLoops()) {
+            result.setPipelinedLoops(true);
+        }
+        if (execution.isAdaptiveForking()) {
+            result.setAdaptiveForking(true);
+        }
+        if (execution.isTracing()) {
+            result.setTracing(true);
+        }
+        if (execution.isSpeculative()) {
+            result.setSpeculativeExecution(true);
+        }
+        if (execution.getMaxSpeculationTime() != null) {
+            result.setMaximalSpeculationTime(execution.getMaxSpeculationTime());
+        }
         for (ChainSpecification.ChainBlockConf blockConf : chainSpecification.getBlocks()) {
             result.addBlock(ChainBlock.of(result, blockConf));
         }
@@ -288,6 +407,375 @@ public final class Chain implements AutoCloseable {
         return this;
     }
 
+    public ChainExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Sets the kind of threads, used for executing blocks in {@link #isMultithreading() multithreading} mode.
+     * Ignored if the multithreading is disabled.
+     *
+     * @param executionMode new execution mode.
+     * @return a reference to this object.
+     */
+    public Chain setExecutionMode(ChainExecutionMode executionMode) {
+        this.executionMode = Objects.requireNonNull(executionMode, "Null execution mode");
+        return this;
+    }
+
+    public int getMaximalNumberOfCpuBoundBlocks() {
+        return maximalNumberOfCpuBoundBlocks;
+    }
+
+    /**
+     * Sets the maximal number of blocks, which do not implement {@link net.algart.executors.api.BlockingExecution},
+     * that can be executed simultaneously in {@link ChainExecutionMode#VIRTUAL} mode.
+     *
+     * @param maximalNumberOfCpuBoundBlocks maximal number of CPU-bound blocks, executed in parallel.
+     * @return a reference to this object.
+     */
+    public Chain setMaximalNumberOfCpuBoundBlocks(int maximalNumberOfCpuBoundBlocks) {
+        if (maximalNumberOfCpuBoundBlocks <= 0) {
+            throw new IllegalArgumentException("Zero or negative maximal number of CPU-bound blocks "
+                    + maximalNumberOfCpuBoundBlocks);
+        }
+        this.maximalNumberOfCpuBoundBlocks = maximalNumberOfCpuBoundBlocks;
+        return this;
+    }
+
+    public boolean isMemoization() {
+        return memoization;
+    }
+
+    /**
+     * Enables or disables reusing results of the blocks, the executors of which receive the same parameters
+     * and input data as in one of the previous calls: see {@link ChainResultCache}.
+     * The executors implementing {@link net.algart.executors.api.NonDeterministicExecution} are always executed.
+     *
+     * @param memoization whether the results of blocks should be cached.
+     * @return a reference to this object.
+     */
+    public Chain setMemoization(boolean memoization) {
+        this.memoization = memoization;
+        return this;
+    }
+
+    public boolean isEarlyDataRelease() {
+        return earlyDataRelease;
+    }
+
+    /**
+     * Enables or disables freeing data of the blocks as soon as they become unnecessary.
+     * If enabled, the input data of every block are freed after its execution, and its output data are freed
+     * after execution of all blocks, connected to its outputs, instead of freeing all data
+     * by {@link #freeData()} after execution of the whole chain. Blocks of
+     * {@link ChainBlock#isStandardOutput() standard outputs} are never freed by this mechanism.
+     *
+     * <p>This reduces the {@link #peakRetainedBytes() peak memory}, used by the chain,
+     * but the intermediate results of the blocks cannot be viewed after execution.
+     * This mode is ignored by {@link #executeIncremental()}, which needs to keep the results of all blocks.
+     *
+     * @param earlyDataRelease whether the data of blocks should be freed as soon as possible.
+     * @return a reference to this object.
+     */
+    public Chain setEarlyDataRelease(boolean earlyDataRelease) {
+        this.earlyDataRelease = earlyDataRelease;
+        return this;
+    }
+
+    public boolean isLoopInvariantHoisting() {
+        return loopInvariantHoisting;
+    }
+
+    /**
+     * Enables or disables reusing the results of loop-invariant blocks while repeating this chain
+     * (when some executor requests {@link ExecutionBlock#needToRepeat() repeating}, like
+     * {@link net.algart.executors.modules.core.logic.loops.RepeatWhile}).
+     * If enabled, the blocks, which do not implement {@link net.algart.executors.api.NonDeterministicExecution}
+     * and do not depend (directly or indirectly) on such blocks, are
+     * {@link ChainBlock#isLoopInvariant() loop-invariant}: they are executed only at the first two iterations
+     * (at the first iteration, it is not known yet whether the chain will be repeated, and their results
+     * are moved to other blocks as usual), and the following iterations reuse their results.
+     *
+     * <p>Note that the loop-invariant blocks are supposed to depend only on their parameters and input data.
+     * For example, if the loop writes some file and then reads it by a usual block, you should not enable
+     * this mode: the file will be read only twice.
+     *
+     * @param loopInvariantHoisting whether the results of loop-invariant blocks should be reused.
+     * @return a reference to this object.
+     */
+    public Chain setLoopInvariantHoisting(boolean loopInvariantHoisting) {
+        this.loopInvariantHoisting = loopInvariantHoisting;
+        return this;
+    }
+
+    public boolean isPipelinedLoops() {
+        return pipelinedLoops;
+    }
+
+    /**
+     * Enables or disables overlapping the iterations of this chain, when it is
+     * {@link ExecutionBlock#needToRepeat() repeated}. If enabled, every block starts the next iteration
+     * as soon as its source blocks have finished it and some block has requested repeating,
+     * without waiting until all other blocks finish the current iteration. For example,
+     * in a loop "read next image &rarr; process &rarr; write image", reading the image #<i>N</i>+1
+     * can be performed in parallel with processing the image #<i>N</i> and writing the image #<i>N</i>&minus;1.
+     * The output data of every iteration are buffered, and no block can run ahead of others
+     * by more than 2 iterations.
+     *
+     * <p>This mode is used only in {@link #isMultithreading() multithreading} mode, since the second
+     * iteration, and only if all the executed blocks have no conditional inputs
+     * (see {@link ChainInputPort#necessary()}), like "if/else" blocks. In other case, or while
+     * {@link #executeIncremental()}, the iterations are executed sequentially, as usual.
+     * In this mode, {@link #setLoopInvariantHoisting(boolean) loop-invariant hoisting} and
+     * {@link #setEarlyDataRelease(boolean) early data release} are not used for repeating iterations.
+     *
+     * <p>Note that the blocks of the same iteration are supposed to interact only via the links.
+     * If the loop passes some values to the next iteration in another way (for example, via some global
+     * variables or files), you should not enable this mode.
+     *
+     * @param pipelinedLoops whether the iterations of the repeated chain may overlap.
+     * @return a reference to this object.
+     */
+    public Chain setPipelinedLoops(boolean pipelinedLoops) {
+        this.pipelinedLoops = pipelinedLoops;
+        return this;
+    }
+
+    public boolean isAdaptiveForking() {
+        return adaptiveForking;
+    }
+
+    /**
+     * Enables or disables adaptive choosing, which ready blocks should be passed to other threads
+     * in {@link #isMultithreading() multithreading} mode. If enabled, the blocks, the
+     * {@link ChainBlock#estimatedExecutionTime() estimated execution time} of which is less than
+     * the measured cost of passing a task to another thread (multiplied by some small factor),
+     * are executed by the current thread, and only heavy blocks lead to starting new threads.
+     * So, a chain of many tiny blocks like "create integer" or "compare two numbers" is executed
+     * almost sequentially, without the overhead of multithreading. The cost of passing a task
+     * is measured while executing and adapts to the current load of the system.
+     *
+     * <p>The blocks, that were not executed yet, are considered to be heavy.
+     * This mode is used only by the default "ready-queue" scheduler.
+     *
+     * @param adaptiveForking whether the light blocks should be executed by the current thread.
+     * @return a reference to this object.
+     */
+    public Chain setAdaptiveForking(boolean adaptiveForking) {
+        this.adaptiveForking = adaptiveForking;
+        return this;
+    }
+
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    /**
+     * Enables or disables tracing the execution of this chain. If enabled, every execution
+     * records the start and end times of all executed blocks, the time of passing data to them and
+     * the threads, which executed them; the result is available via {@link #lastTrace()}
+     * and is also described in {@link #timingInfo()}.
+     *
+     * <p>Note that the trace contains references to the blocks of this chain.
+     *
+     * @param tracing whether the executions of this chain should be traced.
+     * @return a reference to this object.
+     */
+    public Chain setTracing(boolean tracing) {
+        this.tracing = tracing;
+        if (!tracing) {
+            this.lastTrace = null;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the trace of the last finished execution of this chain in {@link #setTracing(boolean) tracing}
+     * mode, or <code>null</code> if there were no such executions.
+     *
+     * @return the last execution trace.
+     */
+    public ChainTrace lastTrace() {
+        return lastTrace;
+    }
+
+    /**
+     * Returns the summary CPU time (in nanoseconds) of executing all blocks in the last execution of this chain.
+     * It is measured only if the timing is enabled by {@link #setTimingSettings(int, TimingStatistics.Settings)}
+     * and if JVM supports measuring CPU time of threads; in other case, returns 0.
+     *
+     * @return summary CPU time of all blocks in the last execution.
+     */
+    public long lastExecutionCpuTime() {
+        return executionCpuTime.get();
+    }
+
+    /**
+     * Returns the summary number of bytes, allocated in the heap while executing all blocks
+     * in the last execution of this chain.
+     * It is measured only if the timing is enabled by {@link #setTimingSettings(int, TimingStatistics.Settings)}
+     * and if JVM supports measuring allocated memory of threads; in other case, returns 0.
+     *
+     * @return summary allocated memory of all blocks in the last execution.
+     */
+    public long lastExecutionAllocatedBytes() {
+        return executionAllocatedBytes.get();
+    }
+
+    public boolean isSpeculativeExecution() {
+        return speculativeExecution;
+    }
+
+    /**
+     * Enables or disables speculative execution of the conditional inputs of the blocks
+     * (see {@link ChainInputPort#necessary()}), like the inputs of "if/else" blocks. Usually, such a block
+     * first waits for its inputs, which are necessary always (like the condition), and only then executes
+     * the chosen branch. If this mode is enabled, the source blocks of all conditional inputs are started
+     * in parallel with the condition, if there are free threads and if the
+     * {@link ChainBlock#estimatedExecutionTime() estimated execution times} of the source and of all its
+     * sources, which are not activated yet and would be started together with it, are known (they were executed
+     * before) and their sum does not exceed {@link #getMaximalSpeculationTime()}. When the condition is calculated,
+     * the results of the unnecessary branches are discarded; if such a branch block is not used by other
+     * blocks and is still executed, it is {@link ExecutionBlock#interrupt() interrupted} together with its
+     * speculative sources, which are not used by other blocks
+     * (but not while {@link #isMemoization() memoization}: an interrupted block could store incorrect results).
+     * Exceptions in the unnecessary branches are ignored.
+     *
+     * <p>This mode reduces the latency when the condition is slow, but increases the total work.
+     * It can be overridden for some blocks by {@link ChainBlock#setSpeculativeExecution(Boolean)}.
+     * It is used only in {@link #isMultithreading() multithreading} mode and is ignored
+     * by {@link #executeIncremental()}, because the results of the unnecessary branches could be incorrect.
+     *
+     * @param speculativeExecution whether the conditional inputs may be calculated speculatively.
+     * @return a reference to this object.
+     */
+    public Chain setSpeculativeExecution(boolean speculativeExecution) {
+        this.speculativeExecution = speculativeExecution;
+        return this;
+    }
+
+    public double getMaximalSpeculationTime() {
+        return maximalSpeculationTime;
+    }
+
+    /**
+     * Sets the maximal summary {@link ChainBlock#estimatedExecutionTime() estimated execution time}
+     * in milliseconds of the blocks, which may be started speculatively for one conditional input
+     * (the source block and its sources, not activated yet): see {@link #setSpeculativeExecution(boolean)}.
+     *
+     * @param maximalSpeculationTime maximal summary execution time of speculative blocks in milliseconds.
+     * @return a reference to this object.
+     */
+    public Chain setMaximalSpeculationTime(double maximalSpeculationTime) {
+        if (maximalSpeculationTime < 0.0) {
+            throw new IllegalArgumentException("Negative maximal speculation time " + maximalSpeculationTime);
+        }
+        this.maximalSpeculationTime = maximalSpeculationTime;
+        return this;
+    }
+
+    /**
+     * Returns the estimated maximal summary size (in bytes) of the output data of all blocks, that were stored
+     * simultaneously while the last execution of this chain. Only matrices, number arrays and scalars are
+     * taken into account.
+     *
+     * @return peak size of the data, retained by the blocks of this chain.
+     */
+    public long peakRetainedBytes() {
+        return peakRetainedBytes.get();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the parallelism of the dedicated fork-join pool, used for executing this chain
+     * in {@link #isMultithreading() multithreading} {@link ChainExecutionMode#FORK_JOIN} mode.
+     * Zero value (default) means using the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     *
+     * <p>The dedicated pool is shared by all chains with the same {@link #id() ID} and parallelism:
+     * see {@link ChainForkJoinPool#acquire(String, int)}. It is released by {@link #freeResources()}
+     * or when the next execution uses another parallelism, so, this method should not be called
+     * while executing the chain.
+     *
+     * @param parallelism parallelism of the dedicated pool or 0 for using the common pool.
+     * @return a reference to this object.
+     */
+    public Chain setParallelism(int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Negative parallelism " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Returns the dedicated fork-join pool for this chain, or <code>null</code> if
+     * {@link #getParallelism()} is zero.
+     *
+     * @return the dedicated pool or <code>null</code>.
+     */
+    public ChainForkJoinPool forkJoinPool() {
+        final int parallelism = this.parallelism;
+        if (parallelism == 0) {
+            return null;
+        }
+        synchronized (forkJoinPoolLock) {
+            if (forkJoinPool == null || forkJoinPool.parallelism() != parallelism) {
+                final ChainForkJoinPool previous = forkJoinPool;
+                forkJoinPool = ChainForkJoinPool.acquire(id, parallelism);
+                if (previous != null) {
+                    previous.release();
+                }
+            }
+            return forkJoinPool;
+        }
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the maximal number of idle copies of this chain, stored in its {@link #pool() pool}.
+     *
+     * @param poolSize maximal size of the pool.
+     * @return a reference to this object.
+     */
+    public Chain setPoolSize(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Negative pool size " + poolSize);
+        }
+        this.poolSize = poolSize;
+        final ChainPool pool = this.pool;
+        if (pool != null) {
+            pool.setMaximalSize(poolSize);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the pool of {@link #cleanCopy() clean copies} of this chain.
+     * It is created while the first call of this method and
+     * closed by {@link #freeResources()}.
+     *
+     * <p>Usually this method is called for the registered "original" chain,
+     * that is never executed itself: the executors, calling this chain, execute their own copies
+     * and borrow additional copies from this pool only while simultaneous calls from several threads.
+     *
+     * @return the pool of copies of this chain.
+     */
+    public ChainPool pool() {
+        synchronized (chainLock) {
+            if (pool == null) {
+                pool = ChainPool.newInstance(this, poolSize);
+            }
+            return pool;
+        }
+    }
+
     public boolean isIgnoreExceptions() {
         return ignoreExceptions;
     }
@@ -339,8 +827,10 @@ public final class Chain implements AutoCloseable {
     public void addBlock(ChainBlock block) {
         Objects.requireNonNull(block, "Null block");
         clearCache();
-        if (allBlocks.putIfAbsent(block.id, block) != null) {
-            throw new IllegalArgumentException("Duplicate block id: " + block.id);
+        synchronized (allBlocksModificationLock) {
+            if (allBlocks.putIfAbsent(block.id, block) != null) {
+                throw new IllegalArgumentException("Duplicate block id: " + block.id);
+            }
         }
         for (ChainInputPort port : block.inputPorts.values()) {
             if (port.id != null && allPorts.putIfAbsent(port.id, port) != null) {
@@ -373,6 +863,7 @@ public final class Chain implements AutoCloseable {
         if (!allLinks.add(link)) {
             throw new IllegalArgumentException("Duplicate link: " + link);
         }
+        clearCache();
         if (srcPort.block.isExecutedAtRunTime() && destPort.block.isExecutedAtRunTime()) {
             // - ignore links from/to disabled or non-runtime blocks
             ((ChainOutputPort) srcPort).addConnection((ChainInputPort) destPort);
@@ -380,6 +871,114 @@ public final class Chain implements AutoCloseable {
         }
     }
 
+    /**
+     * Replaces the given block, that calls another chain as a sub-chain, with the clean copies of the blocks
+     * of that sub-chain. The IDs of the copied blocks and ports are prefixed with the ID of the calling block
+     * and "/". The links to the inputs/outputs of the calling block are redirected to the copies of
+     * the corresponding standard input/output blocks of the sub-chain, and the parameters of the calling block
+     * are passed to the copies of the corresponding standard data blocks, like in {@link #setParameters(Parameters)}
+     * (if the parameter is specified by a virtual input port, it is also redirected to the data block).
+     * Loading-time blocks of the sub-chain are not copied: they were already executed while loading it.
+     *
+     * <p>After this, the blocks of the sub-chain are executed as usual blocks of this chain
+     * with the settings of this chain (like {@link #isMultithreading()}); in particular, they can be
+     * executed in parallel with other blocks, and every output of the sub-chain becomes available
+     * to the following blocks as soon as it is calculated.
+     *
+     * <p>The sub-chain is not inlined, and this method returns <code>false</code>, if it is this chain itself,
+     * if it is executed in {@link #isExecuteAll() "execute all"} mode (it would lose the unnecessary blocks) or
+     * if some virtual output ports of the calling block are connected or if some its virtual input ports
+     * are connected, but do not correspond to standard data blocks of the sub-chain.
+     *
+     * @param callingBlock block of this chain, that executes the sub-chain.
+     * @param subChain     the sub-chain.
+     * @return whether the block was replaced.
+     */
+    public boolean inlineSubChain(ChainBlock callingBlock, Chain subChain) {
+        Objects.requireNonNull(callingBlock, "Null calling block");
+        Objects.requireNonNull(subChain, "Null sub-chain");
+        synchronized (chainLock) {
+            if (allBlocks.get(callingBlock.id) != callingBlock) {
+                throw new IllegalArgumentException("The block " + callingBlock + " does not belong to " + this);
+            }
+            if (subChain == this || subChain.isExecuteAll() || !callingBlock.isExecutedAtRunTime()) {
+                return false;
+            }
+            for (ChainPort<?> port : callingBlock.getAllOutputPorts()) {
+                if (port.portType.isVirtual() && port.isConnected()) {
+                    return false;
+                }
+            }
+            final String prefix = callingBlock.id + "/";
+            final List<ChainBlock> copies = new ArrayList<>();
+            final Map<String, ChainBlock> inputCopies = new HashMap<>();
+            final Map<String, ChainBlock> outputCopies = new HashMap<>();
+            final Map<String, ChainBlock> dataCopies = new HashMap<>();
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            for (ChainBlock block : subChain.allBlocks.values()) {
+                if (block.isExecutedAtLoadingTime()) {
+                    continue;
+                }
+                final ChainBlock copy = block.inlinedCopy(this, prefix);
+                copies.add(copy);
+                if (block.isStandardInput()) {
+                    inputCopies.put(block.getStandardInputOutputName(), copy);
+                } else if (block.isStandardOutput()) {
+                    outputCopies.put(block.getStandardInputOutputName(), copy);
+                } else if (block.isStandardData() && block.getStandardParameterName() != null
+                        && block.reqStandardDataPort().getData() instanceof SScalar) {
+                    dataCopies.put(block.getStandardParameterName(), copy);
+                    final ChainParameter parameter = callingBlock.getParameter(block.getStandardParameterName());
+                    final String value = parameter == null ? null : parameter.toScalar();
+                    if (value != null) {
+                        parameters.put(copy.id, value);
+                    }
+                }
+            }
+            final List<ChainLink> newLinks = new ArrayList<>();
+            for (ChainLink link : subChain.allLinks) {
+                if (!subChain.allPorts.get(link.srcPortId).block.isExecutedAtLoadingTime()
+                        && !subChain.allPorts.get(link.destPortId).block.isExecutedAtLoadingTime()) {
+                    newLinks.add(ChainLink.of(prefix + link.srcPortId, prefix + link.destPortId));
+                }
+            }
+            final List<ChainLink> removedLinks = new ArrayList<>();
+            for (ChainLink link : allLinks) {
+                final ChainPort<?> srcPort = allPorts.get(link.srcPortId);
+                final ChainPort<?> destPort = allPorts.get(link.destPortId);
+                if (destPort.block == callingBlock) {
+                    removedLinks.add(link);
+                    final ChainBlock input = destPort.portType.isActual() ?
+                            inputCopies.get(destPort.name) :
+                            dataCopies.get(destPort.name);
+                    // - virtual input port corresponds to a parameter, i.e. to a standard data block
+                    if (input == null && destPort.portType.isVirtual()) {
+                        copies.forEach(ChainBlock::freeResources);
+                        return false;
+                        // - the parameter is used by the executor of the sub-chain itself
+                    }
+                    if (input != null) {
+                        newLinks.add(ChainLink.of(link.srcPortId,
+                                input.reqActualInputPort(Executor.DEFAULT_INPUT_PORT).id));
+                    }
+                } else if (srcPort.block == callingBlock) {
+                    removedLinks.add(link);
+                    final ChainBlock output = srcPort.portType.isActual() ? outputCopies.get(srcPort.name) : null;
+                    if (output != null) {
+                        newLinks.add(ChainLink.of(
+                                output.reqActualOutputPort(Executor.DEFAULT_OUTPUT_PORT).id, link.destPortId));
+                    }
+                }
+            }
+            removeBlock(callingBlock, removedLinks);
+            copies.forEach(this::addBlock);
+            newLinks.forEach(this::addLink);
+            inlinedParameters.putAll(parameters);
+            callingBlock.freeResources();
+            return true;
+        }
+    }
+
     public void setAllDefaultInputNames() {
         int count = 0;
         for (ChainBlock block : getAllInputs()) {
@@ -500,9 +1099,10 @@ public final class Chain implements AutoCloseable {
                 final String value = parameters.getString(subChainParameterName, null);
                 // - should be called after checking for a scalar type: for other types,
                 // ExecutorSpecification.setTo(Chain) does not add parameters
-                if (value != null) {
+                if (value != null && !value.equals(((SScalar) data).getValue())) {
                     // - if null, let the parameter have its default value
                     ((SScalar) data).setTo(value);
+                    block.markDirty();
                 }
             }
         }
@@ -550,6 +1150,7 @@ public final class Chain implements AutoCloseable {
 //                            executor.getExecutorSpecification().getName());
                     chainInputPort.getData().setTo(data, true);
                     // - cloning data, because ports in the chain can be freed
+                    block.markDirty();
                 }
             }
         }
@@ -589,23 +1190,290 @@ public final class Chain implements AutoCloseable {
     public void executeNecessary(ExecutionBlock executor) {
         synchronized (chainLock) {
             prepareExecution(true);
-            final Collection<ChainBlock> all = allBlocks.values();
-            all.forEach(ChainBlock::reset);
-            for (; ; ) {
-                this.needToRepeat = false;
-                Collection<ChainBlock> blocksToExecute = executeAll ? all :
-                        executor == null || executor.isAllOutputsNecessary() ?
-                                // This executor (like SubChain from the extensions) probably doesn't know
-                                // its output ports yet: they will be added dynamically by this sub-chain.
-                                // So, if it wants to receive ALL results, we should use ALL outputs of this chain.
-                                getAllOutputs() :
-                                getAllNecessaryOutputs(executor);
-                ChainBlock.executeWithAllDependentInputs(blocksToExecute, multithreading);
-                if (!this.needToRepeat) {
-                    break;
+            setInlinedParameters();
+            peakRetainedBytes.set(retainedBytes.get());
+            final ChainExecutionPlan plan = executionPlan();
+            for (ChainBlock block : plan.blocks) {
+                block.reset();
+                block.markDirty();
+                // - the results of blocks will be moved between them and cannot be reused
+            }
+            startTracing();
+            try {
+                for (boolean first = true; ; first = false) {
+                    this.needToRepeat = false;
+                    Collection<ChainBlock> blocksToExecute = executeAll ? plan.blockList :
+                            executor == null || executor.isAllOutputsNecessary() ?
+                                    // This executor (like SubChain from the extensions) probably doesn't know
+                                    // its output ports yet: they will be added dynamically by this sub-chain.
+                                    // So, if it wants to receive ALL results, we should use ALL outputs of this chain.
+                                    getAllOutputs() :
+                                    plan.necessaryOutputs(executor);
+                    executeWithAllDependentInputs(plan, blocksToExecute);
+                    if (!this.needToRepeat) {
+                        break;
+                    }
+                    if (first && pipelinedLoops && ChainPipeline.isApplicable(plan, blocksToExecute)) {
+                        prepareExecution(false);
+                        ChainPipeline.newInstance(plan, blocksToExecute).execute();
+                        this.needToRepeat = false;
+                        break;
+                    }
+                    prepareRepetition(plan, first);
+                    // - but not calling reset() again!
                 }
-                prepareExecution(false);
-                // - but not calling reset() again!
+            } finally {
+                clearLoopInvariants(plan);
+                finishTracing();
+            }
+        }
+    }
+
+    /**
+     * Executes this chain like {@link #execute()}, but executes only {@link ChainBlock#isDirty() dirty} blocks
+     * and blocks, depending on them; other blocks keep the results of their previous execution.
+     * A block becomes dirty when its parameters or input data are changed, for example, by
+     * {@link ChainBlock#setParameterValue(String, Object)}, {@link #setParameters(Parameters)} or
+     * {@link #setInputData(Map)}.
+     *
+     * <p>To reuse the results, this method copies data between blocks instead of moving them,
+     * so it requires more memory than {@link #execute()}. The results are lost after
+     * {@link #execute()}, {@link #executeNecessary(ExecutionBlock)} or {@link #freeData()}:
+     * the next call of this method will execute all blocks. If the chain was repeated
+     * (see {@link ExecutionBlock#needToRepeat()}), its results are not reused at all.
+     *
+     * <p>Note that the blocks are supposed to depend only on their parameters and input data,
+     * even if they implement {@link net.algart.executors.api.NonDeterministicExecution}:
+     * you may {@link ChainBlock#markDirty() mark} such blocks as dirty to execute them again.
+     */
+    public void executeIncremental() {
+        synchronized (chainLock) {
+            prepareExecution(true);
+            setInlinedParameters();
+            peakRetainedBytes.set(retainedBytes.get());
+            final ChainExecutionPlan plan = executionPlan();
+            for (int k = 0; k < plan.blocks.length; k++) {
+                final ChainBlock block = plan.blocks[k];
+                for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                    if (plan.blocks[plan.inputSlotSources[slot]].isDirty()) {
+                        block.markDirty();
+                        break;
+                    }
+                }
+                // - topological order: all sources are already processed
+                if (block.isDirty()) {
+                    block.reset();
+                } else {
+                    block.markReadyWithoutExecution();
+                }
+            }
+            boolean repeated = false;
+            retainingResults = true;
+            startTracing();
+            try {
+                for (; ; ) {
+                    this.needToRepeat = false;
+                    executeWithAllDependentInputs(plan, executeAll ? plan.blockList : getAllOutputs());
+                    if (!this.needToRepeat) {
+                        break;
+                    }
+                    prepareRepetition(plan, !repeated);
+                    repeated = true;
+                }
+            } finally {
+                clearLoopInvariants(plan);
+                finishTracing();
+                retainingResults = false;
+                if (repeated) {
+                    // - blocks, skipped at the first iteration, could be important for repeating
+                    plan.blockList.forEach(ChainBlock::markDirty);
+                }
+            }
+        }
+    }
+
+    /**
+     * Equivalent to <code>{@link #executeAsync(Map, java.util.concurrent.Executor)
+     * executeAsync}(inputs, ForkJoinPool.commonPool())</code>.
+     *
+     * @param inputs input values to set.
+     * @return the future results of the chain.
+     */
+    public CompletableFuture<Map<String, Data>> executeAsync(Map<String, Data> inputs) {
+        return executeAsync(inputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously {@link #setInputData(Map) sets the inputs}, {@link #execute() executes} this chain
+     * and returns the {@link #getOutputDataClone() clone of its outputs}.
+     *
+     * <p>Cancelling the returned future (by {@link CompletableFuture#cancel(boolean)} or by completing it
+     * in another way) while the chain is executed {@link #interrupt() interrupts} the chain:
+     * no new blocks are started, and the executors see this by {@link ExecutionBlock#isInterrupted()}.
+     *
+     * <p>Note that the same chain cannot be executed by several threads simultaneously: the executions,
+     * requested by several calls of this method, are performed one after another. Every request
+     * is passed to <code>asyncExecutor</code> only after finishing the previous one, so the queued requests
+     * do not occupy threads of the executor. To process
+     * several requests in parallel, use different copies of the chain, for example,
+     * {@link ChainPool#borrow() borrowed} from its {@link #pool() pool}.
+     *
+     * @param inputs        input values to set.
+     * @param asyncExecutor the executor that will perform the chain execution.
+     * @return the future results of the chain.
+     */
+    public CompletableFuture<Map<String, Data>> executeAsync(
+            Map<String, Data> inputs,
+            java.util.concurrent.Executor asyncExecutor) {
+        Objects.requireNonNull(inputs, "Null inputs");
+        Objects.requireNonNull(asyncExecutor, "Null async executor");
+        final CompletableFuture<Map<String, Data>> result = new CompletableFuture<>();
+        final Object execution = new Object();
+        result.whenComplete((outputs, exception) -> {
+            synchronized (interruptionLock) {
+                if (currentAsyncExecution == execution && exception != null) {
+                    // - completed outside (cancelled) while executing
+                    interrupt();
+                }
+            }
+        });
+        final Runnable task = () -> {
+            synchronized (chainLock) {
+                // - usually free: other asynchronous requests are not started until this one is finished
+                if (result.isDone()) {
+                    // - cancelled before starting
+                    return;
+                }
+                synchronized (interruptionLock) {
+                    currentAsyncExecution = execution;
+                    clearInterruption();
+                }
+                Map<String, Data> outputs = null;
+                Throwable exception = null;
+                try {
+                    setInputData(inputs);
+                    execute();
+                    outputs = getOutputDataClone();
+                } catch (Throwable e) {
+                    exception = e;
+                } finally {
+                    synchronized (interruptionLock) {
+                        currentAsyncExecution = null;
+                        clearInterruption();
+                        // - the interruption request must not affect further executions
+                    }
+                }
+                if (exception != null) {
+                    result.completeExceptionally(exception);
+                } else {
+                    result.complete(outputs);
+                }
+            }
+        };
+        synchronized (interruptionLock) {
+            final CompletableFuture<?> request = lastAsyncRequest.handleAsync((ignoredResult, ignoredException) -> {
+                task.run();
+                return null;
+            }, asyncExecutor);
+            request.whenComplete((ignoredResult, exception) -> {
+                if (exception != null) {
+                    // - for example, the executor rejected the task
+                    result.completeExceptionally(exception);
+                }
+            });
+            lastAsyncRequest = request;
+        }
+        return result;
+    }
+
+    /**
+     * Executes this chain for every input set in the given list and returns the results in the same order.
+     *
+     * <p>The input sets are processed in parallel by <code>parallelism</code> copies of this chain,
+     * {@link ChainPool#borrow() borrowed} from its {@link #pool() pool}, in the threads of
+     * the {@link #forkJoinPool() dedicated pool} of this chain or of the common pool.
+     * For every input set, the copy is {@link #reinitializeAll() reinitialized}, receives the inputs by
+     * {@link #setInputData(Map)}, is executed and returns {@link #getOutputDataClone() the clone of its outputs}.
+     * This chain itself is not modified.
+     *
+     * <p>An exception, thrown while processing some input set, does not stop the batch: it is stored in
+     * the corresponding {@link ChainBatchResult}.
+     *
+     * @param inputs      list of input sets.
+     * @param parallelism maximal number of input sets, processed simultaneously.
+     * @return results of execution for all input sets.
+     */
+    public List<ChainBatchResult> executeBatch(List<Map<String, Data>> inputs, int parallelism) {
+        Objects.requireNonNull(inputs, "Null inputs");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Zero or negative parallelism " + parallelism);
+        }
+        final List<Map<String, Data>> inputList = List.copyOf(inputs);
+        final int n = inputList.size();
+        final ChainBatchResult[] results = new ChainBatchResult[n];
+        final AtomicInteger nextIndex = new AtomicInteger(0);
+        final ChainPool pool = pool();
+        final Runnable worker = () -> {
+            final Chain chain = pool.borrow();
+            try {
+                for (int k; (k = nextIndex.getAndIncrement()) < n; ) {
+                    results[k] = executeBatchItem(chain, k, inputList.get(k));
+                }
+            } finally {
+                pool.giveBack(chain);
+            }
+        };
+        final int numberOfWorkers = Math.min(parallelism, n);
+        if (numberOfWorkers <= 1) {
+            if (n > 0) {
+                worker.run();
+            }
+        } else {
+            final ChainForkJoinPool dedicatedPool = forkJoinPool();
+            final CompletableFuture<?>[] workers = new CompletableFuture<?>[numberOfWorkers - 1];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = CompletableFuture.runAsync(worker,
+                        dedicatedPool != null ? dedicatedPool.pool() : ForkJoinPool.commonPool());
+            }
+            try {
+                worker.run();
+                // - the current thread also processes input sets
+            } finally {
+                CompletableFuture.allOf(workers).join();
+                // - we must not return while other workers use the results array and the pool
+            }
+        }
+        return List.of(results);
+    }
+
+    public boolean isInterruptionRequested() {
+        return interruptionRequested;
+    }
+
+    /**
+     * Requests interruption of the current execution of this chain: blocks, that are not started yet,
+     * will not be executed, and all executors of this chain are {@link ExecutionBlock#interrupt() interrupted}.
+     * The execution method will throw {@link net.algart.contexts.InterruptionException}.
+     *
+     * <p>The request, made while {@link #executeAsync(Map) asynchronous execution}, is cleared
+     * when that execution is finished; in other case, you should clear it by {@link #clearInterruption()}.
+     */
+    public void interrupt() {
+        interruptionRequested = true;
+        for (ChainBlock block : allBlocksSnapshot()) {
+            final ExecutionBlock executor = block.executor;
+            if (executor != null) {
+                executor.interrupt();
+            }
+        }
+    }
+
+    public void clearInterruption() {
+        interruptionRequested = false;
+        for (ChainBlock block : allBlocksSnapshot()) {
+            final ExecutionBlock executor = block.executor;
+            if (executor != null) {
+                executor.setInterruptionRequested(false);
             }
         }
     }
@@ -617,8 +1485,21 @@ public final class Chain implements AutoCloseable {
     }
 
     public void freeResources() {
+        final ChainPool pool;
         synchronized (chainLock) {
             allBlocks.values().forEach(ChainBlock::freeResources);
+            pool = this.pool;
+            this.pool = null;
+        }
+        if (pool != null) {
+            pool.close();
+            // - outside synchronization: it frees other chains
+        }
+        synchronized (forkJoinPoolLock) {
+            if (forkJoinPool != null) {
+                forkJoinPool.release();
+                forkJoinPool = null;
+            }
         }
     }
 
@@ -661,6 +1542,26 @@ public final class Chain implements AutoCloseable {
         for (ChainBlock block : all) {
             sb.append(String.format("    %s%n", block.timingInfo()));
         }
+        final ChainForkJoinPool pool;
+        synchronized (forkJoinPoolLock) {
+            pool = multithreading && executionMode == ChainExecutionMode.FORK_JOIN ? forkJoinPool : null;
+            // - not forkJoinPool(): we should not acquire the pool only for showing information
+        }
+        if (pool != null) {
+            sb.append(String.format("  Dedicated %s%n", pool));
+        }
+        sb.append(String.format("  Peak retained data: %.3f MB%s%n",
+                peakRetainedBytes() / 1048576.0, earlyDataRelease ? " (early data release)" : ""));
+        final long cpuTime = lastExecutionCpuTime();
+        final long allocatedBytes = lastExecutionAllocatedBytes();
+        if (cpuTime != 0 || allocatedBytes != 0) {
+            sb.append(String.format(Locale.US, "  Last execution of all blocks: %.3f ms CPU, %.3f MB allocated%n",
+                    cpuTime * 1e-6, allocatedBytes / 1048576.0));
+        }
+        final ChainTrace lastTrace = this.lastTrace;
+        if (lastTrace != null) {
+            sb.append(lastTrace.criticalPathInfo());
+        }
         return sb.toString();
     }
 
@@ -688,6 +1589,19 @@ public final class Chain implements AutoCloseable {
         freeResources();
     }
 
+    private static ChainBatchResult executeBatchItem(Chain chain, int index, Map<String, Data> inputs) {
+        try {
+            chain.reinitializeAll();
+            chain.setInputData(inputs);
+            chain.execute();
+            return ChainBatchResult.success(index, chain.getOutputDataClone());
+        } catch (RuntimeException | AssertionError | IOError e) {
+            return ChainBatchResult.failure(index, e);
+        } finally {
+            chain.freeData();
+        }
+    }
+
     private void setAllInputData(Map<String, Data> inputs, boolean requireToSetAllInputs) {
         Objects.requireNonNull(inputs, "Null inputs");
         synchronized (chainLock) {
@@ -703,7 +1617,9 @@ public final class Chain implements AutoCloseable {
                                 + " instead of expected " + inputPort.getDataType());
                     }
                     inputPort.getData().setTo(input, true);
-                    // - cloning data, because ports in the chain can be freed
+                    // - cloning data, because ports in the chain can be freed;
+                    // note that it is cheap for SMat (immutable data) and SNumbers (copy-on-write)
+                    block.markDirty();
                 } else if (requireToSetAllInputs) {
                     throw new IllegalArgumentException("No data for input block '" + executorPortName
                             + "': " + block);
@@ -712,14 +1628,145 @@ public final class Chain implements AutoCloseable {
         }
     }
 
+    void addRetainedBytes(long delta) {
+        final long retained = retainedBytes.addAndGet(delta);
+        peakRetainedBytes.accumulateAndGet(retained, Math::max);
+    }
+
+    private void removeBlock(ChainBlock block, Collection<ChainLink> links) {
+        for (ChainLink link : links) {
+            allLinks.remove(link);
+            final ChainPort<?> srcPort = allPorts.get(link.srcPortId);
+            final ChainPort<?> destPort = allPorts.get(link.destPortId);
+            srcPort.connected.remove(destPort.id);
+            destPort.connected.remove(srcPort.id);
+        }
+        for (ChainPort<?> port : block.getAllInputPorts()) {
+            if (port.id != null) {
+                allPorts.remove(port.id);
+            }
+        }
+        for (ChainPort<?> port : block.getAllOutputPorts()) {
+            if (port.id != null) {
+                allPorts.remove(port.id);
+            }
+        }
+        synchronized (allBlocksModificationLock) {
+            allBlocks.remove(block.id);
+        }
+        clearCache();
+    }
+
+    // Can be called from any thread, in particular, while executing the chain in another thread
+    // (the blocks can be added or removed at this moment by inlining sub-chains)
+    private ChainBlock[] allBlocksSnapshot() {
+        synchronized (allBlocksModificationLock) {
+            return allBlocks.values().toArray(new ChainBlock[0]);
+        }
+    }
+
+    private void setInlinedParameters() {
+        inlinedParameters.forEach((blockId, value) -> {
+            final ChainBlock block = allBlocks.get(blockId);
+            final Data data = block.reqActualInputPort(Executor.DEFAULT_INPUT_PORT).getData();
+            if (!value.equals(((SScalar) data).getValue())) {
+                // - the port is usually empty here: the data are freed after every execution
+                ((SScalar) data).setTo(value);
+                block.markDirty();
+            }
+        });
+    }
+
     private void prepareExecution(boolean firstIteration) {
         synchronized (chainLock) {
             executionIndex.set(0);
-            ChainBlock.prepareExecution(allBlocks.values());
+            if (firstIteration) {
+                executionCpuTime.set(0);
+                executionAllocatedBytes.set(0);
+            }
+            for (ChainBlock block : executionPlan().blocks) {
+                block.prepareExecution();
+            }
+        }
+    }
+
+    private void prepareRepetition(ChainExecutionPlan plan, boolean firstRepetition) {
+        final boolean findLoopInvariants = firstRepetition && loopInvariantHoisting;
+        if (findLoopInvariants && retainingResults) {
+            findLoopInvariants(plan);
+            // - the results of the first iteration were not moved and can be reused already
+        }
+        executionIndex.set(0);
+        for (ChainBlock block : plan.blocks) {
+            block.prepareRepetition();
+        }
+        if (findLoopInvariants && !retainingResults) {
+            findLoopInvariants(plan);
+            // - they will be executed at the second iteration again, but without moving their results
+        }
+    }
+
+    private static void findLoopInvariants(ChainExecutionPlan plan) {
+        for (int k = 0; k < plan.blocks.length; k++) {
+            final ChainBlock block = plan.blocks[k];
+            boolean invariant = !block.isExecutedAtRunTime() || (block.executor != null
+                    && !block.executor.isNonDeterministicExecution()
+                    && !block.executor.needToRepeat());
+            for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1];
+                 invariant && slot < to; slot++) {
+                invariant = plan.blocks[plan.inputSlotSources[slot]].loopInvariant;
+                // - topological order: all sources are already processed
+            }
+            block.loopInvariant = invariant;
+        }
+    }
+
+    private static void clearLoopInvariants(ChainExecutionPlan plan) {
+        for (ChainBlock block : plan.blocks) {
+            block.loopInvariant = false;
+        }
+    }
+
+    private void startTracing() {
+        this.trace = tracing ? new ChainTrace(this) : null;
+    }
+
+    private void finishTracing() {
+        final ChainTrace trace = this.trace;
+        if (trace != null) {
+            trace.finish();
+            this.lastTrace = trace;
+            this.trace = null;
+        }
+    }
+
+    private void executeWithAllDependentInputs(ChainExecutionPlan plan, Collection<ChainBlock> blocksToExecute) {
+        if (isEarlyDataRelease() && !retainingResults && !executeAll) {
+            ChainBlock.skipUnrequestedBlocks(plan.blocks, blocksToExecute);
+        }
+        if (USE_READY_QUEUE_SCHEDULER) {
+            plan.scheduler().execute(blocksToExecute);
+        } else {
+            final ChainForkJoinPool pool = multithreading ? forkJoinPool() : null;
+            if (pool != null) {
+                pool.invoke(() -> ChainBlock.executeWithAllDependentInputs(blocksToExecute, true));
+                // - parallel streams, started inside the fork-join pool, use this pool instead of the common one
+            } else {
+                ChainBlock.executeWithAllDependentInputs(blocksToExecute, multithreading);
+            }
+        }
+    }
+
+    private ChainExecutionPlan executionPlan() {
+        ChainExecutionPlan executionPlan = this.executionPlan;
+        if (executionPlan == null) {
+            this.executionPlan = executionPlan = ChainExecutionPlan.newInstance(this);
         }
+        return executionPlan;
     }
 
     private void clearCache() {
+        this.executionPlan = null;
         this.allData = null;
         this.allInputs = null;
         this.allOutputs = null;
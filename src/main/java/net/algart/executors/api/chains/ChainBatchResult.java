@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.chains;
+
+import net.algart.executors.api.data.Data;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Result of executing the chain for one input set in {@link Chain#executeBatch(java.util.List, int)}:
+ * either the clone of chain outputs, or the exception, thrown while executing.
+ */
+public final class ChainBatchResult {
+    private final int index;
+    private final Map<String, Data> outputs;
+    private final Throwable exception;
+
+    private ChainBatchResult(int index, Map<String, Data> outputs, Throwable exception) {
+        this.index = index;
+        this.outputs = outputs;
+        this.exception = exception;
+    }
+
+    static ChainBatchResult success(int index, Map<String, Data> outputs) {
+        return new ChainBatchResult(index, Objects.requireNonNull(outputs, "Null outputs"), null);
+    }
+
+    static ChainBatchResult failure(int index, Throwable exception) {
+        return new ChainBatchResult(index, null, Objects.requireNonNull(exception, "Null exception"));
+    }
+
+    /**
+     * Returns the index of the corresponding input set in the batch.
+     *
+     * @return index of the input set.
+     */
+    public int index() {
+        return index;
+    }
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * Returns the outputs of the chain.
+     *
+     * @return outputs of the chain.
+     * @throws IllegalStateException if the execution was not successful;
+     *                               the thrown exception is attached as its cause.
+     */
+    public Map<String, Data> outputs() {
+        if (exception != null) {
+            throw new IllegalStateException("Chain execution #" + index + " failed: " + exception, exception);
+        }
+        return outputs;
+    }
+
+    /**
+     * Returns the exception, thrown while executing the chain, or <code>null</code> if it was successful.
+     *
+     * @return the exception or <code>null</code>.
+     */
+    public Throwable exception() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return "chain batch result #" + index + ": "
+                + (exception == null ? "outputs " + outputs.keySet() : "failed, " + exception);
+    }
+}
@@ -41,6 +41,7 @@ import java.io.IOError;
 import java.lang.System.Logger;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
@@ -53,6 +54,19 @@ public final class ChainBlock {
     // - can be set to false for debugging needs; it will decrease the speed of executing some sub-chains
     // and will lead to stack overflow in recursive sub-chains
 
+    private static final boolean TIMING_SKETCHES = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.timingSketches", false);
+    // - if true, the block timing is based on histogram sketches and describes all calls from the start
+    // (with constant memory) instead of the last calls
+
+    private static final int NOT_READY = 0;
+    private static final int RUNNING = 1;
+    private static final int READY = 2;
+    private static final int FAILED = 3;
+
+    private static final double EXECUTION_TIME_SMOOTHING = 0.25;
+    // - weight of the last execution time in averageExecutionTime
+
     private static final Logger LOG = System.getLogger(ChainBlock.class.getName());
 
     Chain chain;
@@ -84,6 +98,8 @@ public final class ChainBlock {
     private boolean standardOutput = false;
     private boolean standardData = false;
     private String standardInputOutputPortName = null;
+    private Path currentDirectory = null;
+    // - if not null, overrides the current directory of the chain (for blocks of inlined sub-chains)
 
     volatile ExecutionBlock executor = null;
 
@@ -96,12 +112,16 @@ public final class ChainBlock {
     // Note: we must use such a pair, not a single name: it is a correct situation when a virtual port
     // has the same name as an actual port.
 
-    private final AtomicInteger numberOfExecutionsForAssertion = new AtomicInteger(0);
     private final AtomicBoolean needToReset = new AtomicBoolean(true);
 
+    private final Stage execution = new Stage();
+    // - NOT_READY -> RUNNING -> READY/FAILED; only the thread, that started this stage, executes the block
+    private final Stage alwaysNecessaryInputsCopying = new Stage();
+    // - copying the inputs, necessary always, before resolving the conditional inputs
+    private volatile List<ChainInputPort> resolvedConditionalInputs = null;
+    // - the result of resolving the conditional inputs, filled by the thread that copied the inputs above
+
     // The following fields are filled in initialize() method
-    private volatile boolean ready;
-    private volatile boolean readyAlwaysNecessaryInputs;
     private volatile boolean dataFreed;
     private volatile boolean closed;
     private volatile boolean checkingNow;
@@ -109,6 +129,24 @@ public final class ChainBlock {
     private FunctionTiming timing;
     private volatile int executionOrder;
 
+    int planIndex = -1;
+    // - index in ChainExecutionPlan.blocks; set while building the plan
+    private volatile boolean dirty = true;
+    // - whether the results of the previous execution cannot be reused by Chain.executeIncremental()
+    volatile boolean loopInvariant = false;
+    // - whether the results of this block are reused by the next iterations of the repeated chain
+    volatile boolean repeatRequested = false;
+    // - whether the executor has requested repeating the chain after the last execution
+    private volatile Boolean speculativeExecution = null;
+    private volatile double averageExecutionTime = -1.0;
+    // - exponential moving average of the execution time in nanoseconds; -1 if unknown
+    private final AtomicInteger numberOfUnfinishedConsumers = new AtomicInteger(0);
+    // - used when Chain.isEarlyDataRelease(): connected consumers, which are not finished and not skipped yet
+    private final AtomicBoolean sourcesReleased = new AtomicBoolean(false);
+    // - whether this block has already informed its sources that it will not read their results in this pass
+    private long retainedBytes = 0;
+    // - estimated size of the data in output ports; guarded by lock
+
     private ChainBlock(Chain chain, String id, String executorId) {
         this.chain = Objects.requireNonNull(chain, "Null containing chain");
         this.id = Objects.requireNonNull(id, "Null block id");
@@ -125,17 +163,17 @@ public final class ChainBlock {
     }
 
     private ChainBlock(ChainBlock block, Chain newChain) {
-        this(block);
-        Objects.requireNonNull(newChain, "Null new chain");
-        this.chain = newChain;
+        this(block, newChain, null);
     }
 
     // Classic copy constructor: we create it (in addition to the previous one) to help IDEs
     // to check the correctness of copying all fields.
-    private ChainBlock(ChainBlock block) {
+    // If idPrefix is not null, it is added to the IDs of the block and its ports.
+    private ChainBlock(ChainBlock block, Chain newChain, String idPrefix) {
         Objects.requireNonNull(block, "Null chain block");
-        this.chain = block.chain;
-        this.id = block.id;
+        this.chain = Objects.requireNonNull(newChain, "Null new chain");
+        // - must be set before copying ports: they store the reference to the chain
+        this.id = idPrefix == null ? block.id : idPrefix + block.id;
         this.executorId = block.executorId;
         this.executorSpecification = block.executorSpecification;
 
@@ -148,6 +186,9 @@ public final class ChainBlock {
         this.standardOutput = block.standardOutput;
         this.standardData = block.standardData;
         this.standardInputOutputPortName = block.standardInputOutputPortName;
+        this.currentDirectory = block.currentDirectory;
+        this.speculativeExecution = block.speculativeExecution;
+        this.averageExecutionTime = block.averageExecutionTime;
 
         this.executor = null;
         // - IMPORTANT: executor must not be shallow-cloned here!
@@ -168,9 +209,9 @@ public final class ChainBlock {
         initialize();
         this.parameters.putAll(block.parameters);
         block.inputPorts.forEach((key, port) ->
-                this.inputPorts.put(key, port.cleanCopy(this)));
+                this.inputPorts.put(key, port.cleanCopy(this, copiedPortId(port, idPrefix))));
         block.outputPorts.forEach((key, port) ->
-                this.outputPorts.put(key, port.cleanCopy(this)));
+                this.outputPorts.put(key, port.cleanCopy(this, copiedPortId(port, idPrefix))));
         // - copying ports, not their data (all ports will be empty at the beginning)
     }
 
@@ -183,6 +224,26 @@ public final class ChainBlock {
         // Copying constructor is better than cloning, because we do not clone final fields like "lock"
     }
 
+    /**
+     * Returns a clean copy of this block for inserting into another chain instead of the block,
+     * that calls the chain, containing this block, as a sub-chain.
+     * The IDs of the result and of all its ports are prefixed with the given string;
+     * the ports without IDs receive new unique IDs.
+     * The result is not a standard input, output or data block.
+     */
+    ChainBlock inlinedCopy(Chain newChain, String idPrefix) {
+        Objects.requireNonNull(idPrefix, "Null ID prefix");
+        final ChainBlock result = new ChainBlock(this, newChain, idPrefix);
+        result.standardInput = false;
+        result.standardOutput = false;
+        result.standardData = false;
+        if (result.currentDirectory == null) {
+            result.currentDirectory = this.chain.getCurrentDirectory();
+            // - relative paths in the sub-chain should be resolved as before inlining
+        }
+        return result;
+    }
+
     public static String standardInputOutputPortCaption(String systemName) {
         return systemName == null ? null : DEFAULT_CHAIN_PORT_CAPTION_PATTERN.replace("$$$", systemName);
     }
@@ -456,6 +517,32 @@ public final class ChainBlock {
         // - cloning data, because ports in the chain can be freed
     }
 
+    /**
+     * Changes the value of the parameter of this block. If the executor is already created,
+     * its parameter is changed also. If the new value differs from the previous one,
+     * this block becomes {@link #isDirty() dirty}.
+     *
+     * @param name  parameter name.
+     * @param value new parameter value.
+     */
+    public void setParameterValue(String name, Object value) {
+        Objects.requireNonNull(name, "Null parameter name");
+        synchronized (lock) {
+            final ChainParameter previous = parameters.get(name);
+            if (previous != null && Objects.equals(previous.getValue(), value)) {
+                return;
+            }
+            parameters.put(name, ChainParameter.of(name, value));
+            // - new instance: parameter objects are shared with the block, from which this one was copied
+            final ExecutionBlock executor = this.executor;
+            if (executor != null) {
+                executor.parameters().put(name, value);
+                executor.onChangeParameter(name);
+            }
+            dirty = true;
+        }
+    }
+
     public void getActualOutputData(String portName, Data resultData) {
         Objects.requireNonNull(resultData, "Null resultData");
         final ChainOutputPort outputPort = reqActualOutputPort(portName);
@@ -475,8 +562,46 @@ public final class ChainBlock {
         }
     }
 
+    /**
+     * Returns <code>true</code> if this block is already successfully executed.
+     * If the execution has failed, this method returns <code>false</code>: use {@link #isFailed()}
+     * to check this situation.
+     *
+     * @return whether this block is successfully executed.
+     */
     public boolean isReady() {
-        return ready;
+        return execution.isSucceeded();
+    }
+
+    public boolean isFailed() {
+        return execution.state.get() == FAILED;
+    }
+
+    /**
+     * Whether this block will be executed by the next call of {@link Chain#executeIncremental()}.
+     * The block is dirty if it was not executed by that method yet, or if its parameters or input data
+     * were changed after this, or if its results were lost by usual execution of the chain or
+     * by {@link #freeData()}.
+     *
+     * @return whether the results of the previous execution of this block cannot be reused.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Whether this block does not depend on the iterations of the chain, which is executed now, and, so,
+     * is not executed again while repeating this chain: see {@link Chain#setLoopInvariantHoisting(boolean)}.
+     * Can be used for debugging needs.
+     *
+     * @return whether the results of this block are reused by the next iterations of the chain.
+     */
+    public boolean isLoopInvariant() {
+        return loopInvariant;
     }
 
     /**
@@ -578,77 +703,153 @@ public final class ChainBlock {
     // This method does not access executor, unlike reset() method
     public void prepareExecution() {
         synchronized (lock) {
-            ready = false;
+            execution.reset();
+            alwaysNecessaryInputsCopying.reset();
+            resolvedConditionalInputs = null;
             dataFreed = false;
             closed = false;
-            readyAlwaysNecessaryInputs = false;
-            numberOfExecutionsForAssertion.set(0);
-            for (ChainOutputPort chainOutputPort : outputPorts.values()) {
-                chainOutputPort.resetConnectedInputsInformation();
+            repeatRequested = false;
+            sourcesReleased.set(false);
+            resetConsumersInformation();
+        }
+    }
+
+    // Used by Chain while repeating: loop-invariant results of the previous iteration stay ready
+    void prepareRepetition() {
+        synchronized (lock) {
+            if (loopInvariant && isReady()) {
+                resetConsumersInformation();
+                // - the consumers will copy our results again
+            } else {
+                prepareExecution();
             }
         }
     }
 
     public void execute() {
-        synchronized (lock) {
-            // - must be synchronized, because can be called from several threads
-            if (!ready) {
-                try {
-                    if (isExecutedAtRunTime()) {
-                        final ExecutionBlock executor = getExecutor();
-                        copyInputPortsToExecutor();
-                        try {
-                            final Executor caller = chain.getCaller();
-                            ExecutionStatus status = caller == null ? null : caller.status();
-                            if (status != null) {
-                                status.setComment(this::friendlyCaption);
-                            }
-                            if (executor instanceof Executor e) {
-                                status = e.status();
-                                if (status != null) {
-                                    // - note that executor.status() cannot be null in the current version
-                                    status.setExecutorClassId(executorId);
-                                    status.setExecutorInstanceId(id);
-                                }
-                            }
-                            final long t1 = timing.currentTime();
-                            if (caller != null && caller.isInterrupted()) {
-                                throw new InterruptionException("Execution aborted");
-                            }
-                            if (needToReset.getAndSet(false)) {
-                                executor.reset();
-                            }
-                            executor.execute();
-                            if (executor.needToRepeat()) {
-                                chain.needToRepeat = true;
-                            }
-                            final long t2 = timing.currentTime();
-                            timing.updateExecution(t2 - t1);
-
-                        } catch (RuntimeException | AssertionError | IOError e) {
-                            if (chain.isIgnoreExceptions()) {
-                                Executor.LOG.log(System.Logger.Level.INFO, "IGNORING EXCEPTION:\n      " + e);
-                            } else {
-                                if (isHighLevelException(e)) {
-                                    throw e;
-                                }
-                                throw translateException(e);
-                            }
-                        }
-                        copyOutputPortsFromExecutor();
+        // - can be called from several threads, but only one of them will execute the block
+        if (!execution.tryStart()) {
+            execution.await();
+            return;
+        }
+        final ChainTrace trace = chain.trace;
+        final long traceStart = trace != null ? System.nanoTime() : 0;
+        final ChainBlockExecutionEvent event = new ChainBlockExecutionEvent();
+        event.begin();
+        Throwable failure = null;
+        try {
+            executeByThisThread(event);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (trace != null) {
+                trace.add(this, traceStart, traceStart, System.nanoTime(), failure != null);
+            }
+            execution.finish(failure);
+            commit(event, failure != null);
+        }
+    }
+
+    // Called only by the thread, that has started the execution stage
+    private void executeByThisThread(ChainBlockExecutionEvent event) {
+        if (isExecutedAtRunTime()) {
+            final ExecutionBlock executor = getExecutor();
+            final boolean eventEnabled = event.isEnabled();
+            final long copyInStart = eventEnabled ? System.nanoTime() : 0;
+            copyInputPortsToExecutor();
+            if (eventEnabled) {
+                event.copyInTime += System.nanoTime() - copyInStart;
+            }
+            try {
+                final Executor caller = chain.getCaller();
+                ExecutionStatus status = caller == null ? null : caller.status();
+                if (status != null) {
+                    status.setComment(this::friendlyCaption);
+                }
+                if (executor instanceof Executor e) {
+                    status = e.status();
+                    if (status != null) {
+                        // - note that executor.status() cannot be null in the current version
+                        status.setExecutorClassId(executorId);
+                        status.setExecutorInstanceId(id);
                     }
-                    executionOrder = chain.executionIndex.getAndIncrement();
-                } finally {
-                    ready = true;
-                    // - it is important to set "ready" also after any exception,
-                    // in another case we will have an assertion due to numberOfExecutionsForAssertion
                 }
+                final long t1 = timing.currentTime();
+                final long cpuTime1 = timing.currentThreadCpuTime();
+                final long allocatedBytes1 = timing.currentThreadAllocatedBytes();
+                // - zero when the timing is disabled
+                final long executionStart = System.nanoTime();
+                if (chain.isInterruptionRequested() || (caller != null && caller.isInterrupted())) {
+                    throw new InterruptionException("Execution aborted");
+                }
+                if (needToReset.getAndSet(false)) {
+                    executor.reset();
+                }
+                final ChainResultCache.Key cacheKey = chain.isMemoization()
+                        && !executor.isNonDeterministicExecution() ?
+                        ChainResultCache.key(chain.id(), id, executorId, executor) :
+                        null;
+                // - calculated before execution: the executor may modify its inputs
+                final ChainResultCache cache = ChainResultCache.getInstance();
+                if (cacheKey == null || !cache.restore(cacheKey, executor)) {
+                    executor.execute();
+                    if (executor.needToRepeat()) {
+                        repeatRequested = true;
+                        chain.needToRepeat = true;
+                    } else if (cacheKey != null) {
+                        cache.store(cacheKey, executor);
+                    }
+                }
+                final long t2 = timing.currentTime();
+                timing.updateExecution(t2 - t1);
+                if (timing.getMaximalNumberOfAnalysedCalls() > 0) {
+                    updateResourceUsage(
+                            timing.currentThreadCpuTime() - cpuTime1,
+                            timing.currentThreadAllocatedBytes() - allocatedBytes1);
+                }
+                final long executionTime = System.nanoTime() - executionStart;
+                updateAverageExecutionTime(executionTime);
+                event.executionTime = executionTime;
+
+            } catch (RuntimeException | AssertionError | IOError e) {
+                if (chain.isIgnoreExceptions()) {
+                    Executor.LOG.log(System.Logger.Level.INFO, "IGNORING EXCEPTION:\n      " + e);
+                } else {
+                    if (isHighLevelException(e)) {
+                        throw e;
+                    }
+                    throw translateException(e);
+                }
+            }
+            final long copyOutStart = eventEnabled ? System.nanoTime() : 0;
+            copyOutputPortsFromExecutor();
+            if (eventEnabled) {
+                event.copyOutTime = System.nanoTime() - copyOutStart;
             }
+            synchronized (lock) {
+                updateRetainedBytes();
+            }
+            dirty = !chain.retainingResults;
+            // - in usual mode, the output data will be moved to other blocks
         }
+        executionOrder = chain.executionIndex.getAndIncrement();
+    }
+
+    private void updateResourceUsage(long cpuTime, long allocatedBytes) {
+        timing.updateCpuTime(cpuTime);
+        timing.updateAllocatedBytes(allocatedBytes);
+        chain.executionCpuTime.addAndGet(cpuTime);
+        chain.executionAllocatedBytes.addAndGet(allocatedBytes);
+    }
+
+    // Used by Chain.executeIncremental() for blocks, the results of which can be reused
+    void markReadyWithoutExecution() {
+        execution.finishWithoutStart();
     }
 
     public void executeWithAllDependentInputs() {
-        if (ready) {
+        if (isReady()) {
             return;
         }
         if (!isExecutedAtRunTime()) {
@@ -660,54 +861,24 @@ public final class ChainBlock {
         final List<ChainInputPort> necessarySometimes = new ArrayList<>();
         checkConnectedInputs(necessaryAlways, necessarySometimes);
         streamOfInputs(necessaryAlways).forEach(chainInputPort -> {
-            if (!ready) {
+            if (!isReady()) {
                 // - no sense to continue if another thread has already finished processing this block
                 chainInputPort.connectedSourceBlock().executeWithAllDependentInputs();
             }
         });
         List<ChainInputPort> actualInputPorts = necessaryAlways;
         if (!necessarySometimes.isEmpty()) {
-            final List<ChainInputPort> necessaryNow;
-            synchronized (lock) {
-                if (!readyAlwaysNecessaryInputs) {
-                    // - Important! While multithreading, it could become ready while executing
-                    // connected blocks above, as a result of some parallel execution.
-                    // In this case, we must not call copyFromConnectedPort() again:
-                    // it will lead to IllegalStateException in reduceCountOfConnectedInputs() call.
-                    copyFromConnectedPorts(necessaryAlways);
-                    copyInputPortsToExecutor(necessaryAlways);
-                    readyAlwaysNecessaryInputs = true;
-                }
-                necessaryNow = allNecessaryNow(necessarySometimes);
-            }
+            final List<ChainInputPort> necessaryNow = new ArrayList<>();
+            resolveConditionalInputs(necessaryAlways, necessarySometimes, necessaryNow);
             streamOfInputs(necessaryNow).forEach(chainInputPort -> {
-                if (!ready) {
+                if (!isReady()) {
                     // - no sense to continue if another thread already finished processing this block
                     chainInputPort.connectedSourceBlock().executeWithAllDependentInputs();
                 }
             });
             actualInputPorts = necessaryNow;
         }
-        synchronized (lock) {
-            if (ready) {
-                // - Important! While multithreading, it could become ready while executing
-                // connected blocks above, as a result of some parallel execution.
-                // In this case, we must not call execute(), and also we must not call copyFromConnectedPort() again:
-                // it will lead to IllegalStateException in reduceCountOfConnectedInputs() call.
-                return;
-            }
-            if (numberOfExecutionsForAssertion.incrementAndGet() > 1) {
-                throw new AssertionError("Cannot be called more than once: " + this);
-            }
-            final long t1 = timing.currentTime();
-            copyFromConnectedPorts(actualInputPorts);
-//            debugInformation("C");
-            final long t2 = timing.currentTime();
-            execute();
-            final long t3 = timing.currentTime();
-            timing.updatePassingData(t2 - t1);
-            timing.updateSummary(t3 - t1);
-        }
+        executeWithReadyInputs(actualInputPorts);
     }
 
     public void freeData() {
@@ -721,7 +892,10 @@ public final class ChainBlock {
             if (executor != null) {
                 executor.freeAllPortData();
             }
+            chain.addRetainedBytes(-retainedBytes);
+            retainedBytes = 0;
             dataFreed = true;
+            dirty = true;
         }
     }
 
@@ -751,6 +925,49 @@ public final class ChainBlock {
         return !timing.isEmpty();
     }
 
+    /**
+     * Returns the expected execution time of this block in nanoseconds, based on its previous executions,
+     * or &minus;1 if it was not executed yet. If the {@link #timing() timing} is enabled, this method returns
+     * the average time of the last analysed (or of all) calls; in other case, it returns the exponential
+     * moving average of the execution time, which is calculated always.
+     *
+     * @return estimated execution time in nanoseconds or &minus;1 if unknown.
+     */
+    public double estimatedExecutionTime() {
+        final TimingStatistics execution = timing.execution();
+        if (execution.numberOfAnalysedTimes() > 0) {
+            return execution.averageTimeOfLastAnalysedCalls();
+        }
+        if (execution.numberOfAllCalls() > 0) {
+            return execution.averageTimeOfAllCalls();
+        }
+        return averageExecutionTime;
+    }
+
+    public Boolean getSpeculativeExecution() {
+        return speculativeExecution;
+    }
+
+    /**
+     * Sets whether the conditional inputs of this block (see {@link ChainInputPort#necessary()})
+     * may be calculated speculatively, in parallel with the inputs which are necessary always:
+     * see {@link Chain#setSpeculativeExecution(boolean)}.
+     * <code>null</code> value (default) means the setting of the chain.
+     *
+     * @param speculativeExecution whether the speculative execution of sources of this block is allowed;
+     *                             may be <code>null</code>.
+     * @return a reference to this object.
+     */
+    public ChainBlock setSpeculativeExecution(Boolean speculativeExecution) {
+        this.speculativeExecution = speculativeExecution;
+        return this;
+    }
+
+    boolean isSpeculativeExecution() {
+        final Boolean speculativeExecution = this.speculativeExecution;
+        return speculativeExecution != null ? speculativeExecution : chain.isSpeculativeExecution();
+    }
+
     public void analyseTiming() {
         timing.analyse();
     }
@@ -806,7 +1023,7 @@ public final class ChainBlock {
                 + (standardInput ? " [input]" : "")
                 + (standardOutput ? " [output]" : "")
                 + (standardData ? " [data]" : "")
-                + (ready ? ", ready" : "")
+                + (isFailed() ? ", failed" : isReady() ? ", ready" : "")
                 + (dataFreed ? ", data freed" : "")
                 + (closed ? ", closed" : "")
                 + " {\n"
@@ -839,9 +1056,103 @@ public final class ChainBlock {
         // it is just a signal that the program was stopped
     }
 
+    // Called when all blocks, connected to necessaryAlways ports, are ready;
+    // fills the result by those from necessarySometimes ports, which are really necessary now
+    void resolveConditionalInputs(
+            List<ChainInputPort> necessaryAlways,
+            List<ChainInputPort> necessarySometimes,
+            List<ChainInputPort> result) {
+        if (!alwaysNecessaryInputsCopying.tryStart()) {
+            // - Important! While multithreading, it could be already done (or is being done now)
+            // by another thread, as a result of some parallel execution.
+            // In this case, we must not call copyFromConnectedPort() again:
+            // it will lead to IllegalStateException in reduceCountOfConnectedInputs() call.
+            // We also must not access the executor: it can be executed now by another thread.
+            alwaysNecessaryInputsCopying.await();
+            final List<ChainInputPort> resolved = resolvedConditionalInputs;
+            if (resolved != null) {
+                result.addAll(resolved);
+            }
+            return;
+        }
+        Throwable failure = null;
+        try {
+            copyFromConnectedPorts(necessaryAlways);
+            copyInputPortsToExecutor(necessaryAlways);
+            allNecessaryNow(result, necessarySometimes);
+            resolvedConditionalInputs = List.copyOf(result);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            alwaysNecessaryInputsCopying.finish(failure);
+        }
+    }
+
+    // Called when all blocks, connected to actualInputPorts, are ready
+    void executeWithReadyInputs(Collection<ChainInputPort> actualInputPorts) {
+        if (!execution.tryStart()) {
+            // - Important! While multithreading, it could become ready (or is being executed now)
+            // while executing connected blocks above, as a result of some parallel execution.
+            // In this case, we must not execute it, and also we must not call copyFromConnectedPort() again:
+            // it will lead to IllegalStateException in reduceCountOfConnectedInputs() call.
+            // We just wait for the results without holding any monitors.
+            execution.await();
+            return;
+        }
+        final ChainTrace trace = chain.trace;
+        final long traceStart = trace != null ? System.nanoTime() : 0;
+        long traceExecutionStart = traceStart;
+        final ChainBlockExecutionEvent event = new ChainBlockExecutionEvent();
+        event.begin();
+        Throwable failure = null;
+        try {
+            final long t1 = timing.currentTime();
+            final long copyInStart = event.isEnabled() ? System.nanoTime() : 0;
+            copyFromConnectedPorts(actualInputPorts);
+//            debugInformation("C");
+            final long t2 = timing.currentTime();
+            if (trace != null || event.isEnabled()) {
+                traceExecutionStart = System.nanoTime();
+            }
+            if (event.isEnabled()) {
+                event.copyInTime = traceExecutionStart - copyInStart;
+            }
+            executeByThisThread(event);
+            if (chain.isEarlyDataRelease() && !chain.retainingResults) {
+                if (isStandardOutput()) {
+                    releaseSources();
+                    // - output data must stay available for the caller, but the sources may be freed
+                } else {
+                    releaseUsedData(actualInputPorts);
+                }
+            }
+            final long t3 = timing.currentTime();
+            timing.updatePassingData(t2 - t1);
+            timing.updateSummary(t3 - t1);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (trace != null) {
+                trace.add(this, traceStart, traceExecutionStart, System.nanoTime(), failure != null);
+            }
+            execution.finish(failure);
+            commit(event, failure != null);
+        }
+    }
+
+    private void commit(ChainBlockExecutionEvent event, boolean failed) {
+        if (event.shouldCommit()) {
+            event.setBlock(this);
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
     // This method must not be called in multithreading mode, unlike execute() method
     void checkRecursiveDependencies() {
-        if (ready) {
+        if (isReady()) {
             return;
         }
         checkingNow = true;
@@ -855,7 +1166,7 @@ public final class ChainBlock {
                     }
                     sourceBlock.checkRecursiveDependencies();
                 }
-                ready = true;
+                execution.finishWithoutStart();
             }
         } finally {
             checkingNow = false;
@@ -881,7 +1192,7 @@ public final class ChainBlock {
                 + (caption != null ? " ('" + caption + "')" : "");
     }
 
-    private String friendlyCaption() {
+    String friendlyCaption() {
         return friendlyCaption(false);
     }
 
@@ -936,15 +1247,120 @@ public final class ChainBlock {
         }
     }
 
-    private void checkConnectedInputs(List<ChainInputPort> necessaryAlways, List<ChainInputPort> necessarySometimes) {
+    // Must be called under synchronization by lock
+    private void updateRetainedBytes() {
+        long bytes = 0;
+        for (ChainOutputPort chainOutputPort : outputPorts.values()) {
+            bytes += ChainResultCache.estimatedSize(chainOutputPort.getData());
+        }
+        chain.addRetainedBytes(bytes - retainedBytes);
+        retainedBytes = bytes;
+    }
+
+    // Called only by the thread, executing this block
+    private void updateAverageExecutionTime(long time) {
+        final double average = averageExecutionTime;
+        averageExecutionTime = average < 0.0 ? time : average + EXECUTION_TIME_SMOOTHING * (time - average);
+    }
+
+    // Must be called under synchronization by lock
+    private void resetConsumersInformation() {
+        int numberOfConsumers = 0;
+        for (ChainOutputPort chainOutputPort : outputPorts.values()) {
+            chainOutputPort.resetConnectedInputsInformation();
+            numberOfConsumers += chainOutputPort.getCountOfConnectedInputs();
+        }
+        numberOfUnfinishedConsumers.set(numberOfConsumers);
+    }
+
+    // Called only by the thread, executing this block, after execution
+    private void releaseUsedData(Collection<ChainInputPort> actualInputPorts) {
+        final List<ChainInputPort> usedInputPorts = new ArrayList<>(actualInputPorts);
+        if (alwaysNecessaryInputsCopying.isFinished()) {
+            // - in this case, actualInputPorts contain only conditionally necessary inputs
+            for (ChainInputPort inputPort : inputPorts.values()) {
+                if (inputPort.isConnected() && isAlwaysNecessary(inputPort)) {
+                    usedInputPorts.add(inputPort);
+                }
+            }
+        }
+        synchronized (chain.blocksInteractionLock) {
+            for (ChainInputPort chainInputPort : usedInputPorts) {
+                chainInputPort.removeData();
+                // - also frees the executor input port: it refers to the same data
+            }
+        }
+        releaseSources();
+        if (numberOfUnfinishedConsumers.get() == 0) {
+            // - nobody will use our results
+            releaseOutputData();
+        }
+    }
+
+    // Informs all sources, including the sources of not chosen conditional inputs,
+    // that this block will not read their results anymore in this pass
+    private void releaseSources() {
+        if (!sourcesReleased.compareAndSet(false, true)) {
+            return;
+        }
+        for (ChainInputPort chainInputPort : inputPorts.values()) {
+            if (chainInputPort.isConnected()) {
+                chainInputPort.connectedSourceBlock().onConsumerFinished();
+                // - note: we lock the source block while locking this one; it is safe, because
+                // the blocks are always locked in this order (from consumers to sources)
+            }
+        }
+    }
+
+    private void onConsumerFinished() {
+        if (numberOfUnfinishedConsumers.decrementAndGet() == 0 && !isStandardOutput()) {
+            if (execution.isNotStarted() && !chain.isExecuteAll()) {
+                // - all consumers are finished or skipped without our results (for example, we are
+                // a source of a not chosen conditional branch): this block will not be executed in this pass
+                releaseSources();
+            }
+            releaseOutputData();
+        }
+    }
+
+    // Called before executing the chain with early data release: blocks, which have no consumers
+    // and are not requested, will not be executed, so they are skipped at once
+    static void skipUnrequestedBlocks(ChainBlock[] blocks, Collection<ChainBlock> requested) {
+        for (ChainBlock block : blocks) {
+            if (block.isExecutedAtRunTime() && block.numberOfUnfinishedConsumers.get() == 0
+                    && !requested.contains(block)) {
+                block.releaseSources();
+            }
+        }
+    }
+
+    private void releaseOutputData() {
+        synchronized (lock) {
+            if (loopInvariant) {
+                return;
+                // - the results will be used by the next iterations
+            }
+            synchronized (chain.blocksInteractionLock) {
+                for (ChainOutputPort chainOutputPort : outputPorts.values()) {
+                    chainOutputPort.removeData();
+                }
+                if (executor != null) {
+                    executor.freeAllOutputPortData();
+                }
+            }
+            chain.addRetainedBytes(-retainedBytes);
+            retainedBytes = 0;
+        }
+    }
+
+    void checkConnectedInputs(List<ChainInputPort> necessaryAlways, List<ChainInputPort> necessarySometimes) {
         synchronized (lock) {
             assert isExecutedAtRunTime() : "this method should be used for executable blocks only";
             necessaryAlways.clear();
             necessarySometimes.clear();
             for (ChainInputPort inputPort : inputPorts.values()) {
                 if (inputPort.isConnected()) {
-                    final Boolean necessary = inputPort.necessary();
-                    if (!ANALYSE_CONDITIONAL_INPUTS || necessary == null) {
+                    if (isAlwaysNecessary(inputPort)) {
                         necessaryAlways.add(inputPort);
                     } else {
                         necessarySometimes.add(inputPort);
@@ -954,21 +1370,32 @@ public final class ChainBlock {
         }
     }
 
-    private static List<ChainInputPort> allNecessaryNow(List<ChainInputPort> necessarySometimes) {
-        final List<ChainInputPort> result = new ArrayList<>();
+    static boolean isAlwaysNecessary(ChainInputPort inputPort) {
+        return !ANALYSE_CONDITIONAL_INPUTS || inputPort.necessary() == null;
+    }
+
+    private static void allNecessaryNow(List<ChainInputPort> result, List<ChainInputPort> necessarySometimes) {
+        result.clear();
         for (ChainInputPort inputPort : necessarySometimes) {
             final Boolean necessary = inputPort.necessary();
             if (necessary != null && necessary) {
                 result.add(inputPort);
             }
         }
-        return result;
     }
 
     private Stream<ChainInputPort> streamOfInputs(Collection<ChainInputPort> inputs) {
         return chain.isMultithreading() ? inputs.parallelStream() : inputs.stream();
     }
 
+    private static String copiedPortId(ChainPort<?> port, String idPrefix) {
+        if (idPrefix == null) {
+            return port.id;
+        }
+        return idPrefix + (port.id != null ? port.id : port.block.id + "/" + port.key);
+        // - inlined standard input/output ports will be connected even if they had no IDs
+    }
+
     private void loadParameters(ChainSpecification.ChainBlockConf blockConf) {
         this.parameters.clear();
         for (ChainSpecification.ChainBlockConf.ParameterConf parameterConf : blockConf.getNameToParameterMap().values()) {
@@ -1079,7 +1506,7 @@ public final class ChainBlock {
     }
 
     private void updateSystemSettings(ExecutionBlock executor) {
-        executor.setCurrentDirectory(chain.getCurrentDirectory());
+        executor.setCurrentDirectory(currentDirectory != null ? currentDirectory : chain.getCurrentDirectory());
         if (executor instanceof Executor) {
             ((Executor) executor).setMultithreadingEnvironment(chain.isMultithreading());
         }
@@ -1087,12 +1514,12 @@ public final class ChainBlock {
 
     // Calling only in the constructor and in clone() method
     private void initialize() {
-        this.ready = false;
         this.dataFreed = false;
         this.closed = false;
-        this.readyAlwaysNecessaryInputs = false;
         this.checkingNow = false;
-        this.timing = FunctionTiming.newDisabledInstance();
+        this.timing = TIMING_SKETCHES ?
+                FunctionTiming.newDisabledSketchInstance() :
+                FunctionTiming.newDisabledInstance();
         this.executionOrder = -1;
         // - NOT clear this.executor: the reference to it should be quickly cloned!
     }
@@ -1120,4 +1547,78 @@ public final class ChainBlock {
             }
         }
     }
+
+    // Lock-free lifecycle of some stage of processing the block: NOT_READY -> RUNNING -> READY or FAILED.
+    // The thread, that has moved the stage into RUNNING state, performs it; other threads wait for completion
+    // of the future without holding any monitors (inside ForkJoinPool, such waiting is managed blocking).
+    private static final class Stage {
+        private final AtomicInteger state = new AtomicInteger(NOT_READY);
+        private volatile CompletableFuture<Void> completion = new CompletableFuture<>();
+        private volatile Thread runner = null;
+        private volatile Throwable failure = null;
+
+        boolean tryStart() {
+            if (!state.compareAndSet(NOT_READY, RUNNING)) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        boolean isFinished() {
+            return state.get() >= READY;
+        }
+
+        boolean isSucceeded() {
+            return state.get() == READY;
+        }
+
+        boolean isNotStarted() {
+            return state.get() == NOT_READY;
+        }
+
+        // Waits for completion; if the stage has failed, throws the same exception as the thread,
+        // that has performed it: the caller must not use the results (they may be missing or stale)
+        void await() {
+            if (state.get() == RUNNING) {
+                if (runner == Thread.currentThread()) {
+                    throw new IllegalStateException("Recursive execution of the chain block");
+                    // - in another case, the thread would wait for itself forever
+                }
+                completion.join();
+            }
+            // - NOT_READY is impossible here, excepting reset() from another thread while executing
+            if (state.get() == FAILED) {
+                final Throwable failure = this.failure;
+                if (failure instanceof RuntimeException e) {
+                    throw e;
+                }
+                if (failure instanceof Error e) {
+                    throw e;
+                }
+                throw new IllegalStateException("Execution of the chain block has failed", failure);
+            }
+        }
+
+        void finish(Throwable failure) {
+            runner = null;
+            this.failure = failure;
+            state.set(failure == null ? READY : FAILED);
+            completion.complete(null);
+        }
+
+        void finishWithoutStart() {
+            state.set(READY);
+            completion.complete(null);
+        }
+
+        void reset() {
+            if (completion.isDone()) {
+                completion = new CompletableFuture<>();
+                // - new future must be created before changing the state
+            }
+            failure = null;
+            state.set(NOT_READY);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.api.chains;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event, describing execution of one {@link ChainBlock}
+ * together with copying data to and from its executor.
+ *
+ * <p>The event is disabled by default: it is recorded only if the recording explicitly enables
+ * <code>net.algart.executors.ChainBlockExecution</code>.
+ */
+@Name("net.algart.executors.ChainBlockExecution")
+@Label("Chain Block Execution")
+@Category({"AlgART", "Executors"})
+@Description("Execution of one block of a chain, including passing data")
+@Enabled(false)
+@StackTrace(false)
+final class ChainBlockExecutionEvent extends Event {
+    @Label("Chain ID")
+    String chainId;
+
+    @Label("Chain Name")
+    String chainName;
+
+    @Label("Block ID")
+    String blockId;
+
+    @Label("Executor ID")
+    String executorId;
+
+    @Label("Caption")
+    String caption;
+
+    @Label("Copy-In Time")
+    @Description("Time of copying data from the connected blocks and to the executor")
+    @Timespan(Timespan.NANOSECONDS)
+    long copyInTime;
+
+    @Label("Execution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executionTime;
+
+    @Label("Copy-Out Time")
+    @Description("Time of copying data from the executor to the output ports")
+    @Timespan(Timespan.NANOSECONDS)
+    long copyOutTime;
+
+    @Label("Failed")
+    boolean failed;
+
+    void setBlock(ChainBlock block) {
+        final Chain chain = block.chain;
+        this.chainId = chain.id();
+        this.chainName = chain.name();
+        this.blockId = block.getId();
+        this.executorId = block.getExecutorId();
+        this.caption = block.friendlyCaption();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.chains;
+
+import net.algart.executors.api.BlockingExecution;
+
+/**
+ * Threads, used for executing ready chain blocks in {@link Chain#isMultithreading() multithreading} mode.
+ */
+public enum ChainExecutionMode {
+    /**
+     * The blocks are executed by the workers of the fork-join pool. It is the best choice for chains
+     * consisting of CPU-bound blocks.
+     */
+    FORK_JOIN("fork_join"),
+    /**
+     * Every ready block is executed in a separate virtual thread (Java 21+; in older JVM, in a thread
+     * from an unbounded cached pool). The number of simultaneously executed CPU-bound blocks is limited
+     * by {@link Chain#getMaximalNumberOfCpuBoundBlocks()}, but the blocks implementing {@link BlockingExecution}
+     * are not limited. It is the best choice for chains with many I/O operations like reading/writing files.
+     */
+    VIRTUAL("virtual");
+
+    private final String modeName;
+
+    ChainExecutionMode(String modeName) {
+        this.modeName = modeName;
+    }
+
+    public String modeName() {
+        return modeName;
+    }
+
+    public static ChainExecutionMode of(String name) {
+        final ChainExecutionMode result = ofOrNull(name);
+        if (result == null) {
+            throw new IllegalArgumentException("Unknown chain execution mode: " + name);
+        }
+        return result;
+    }
+
+    public static ChainExecutionMode ofOrNull(String name) {
+        for (ChainExecutionMode mode : values()) {
+            if (mode.modeName.equals(name)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.chains;
+
+import net.algart.executors.api.ExecutionBlock;
+
+import java.util.*;
+
+/**
+ * Precompiled execution plan of the chain: all blocks in a flat topologically sorted array
+ * and all connected input ports in int-indexed "slots", grouped by the consumer block
+ * and (separately) by the source block.
+ *
+ * <p>The plan is built once for the given topology of the chain and is cached inside {@link Chain}
+ * until the next call of {@link Chain#addBlock(ChainBlock)} or {@link Chain#addLink(ChainLink)}.
+ * So, repeated calls of {@link Chain#executeNecessary(ExecutionBlock)} do not need to analyse
+ * the maps of blocks and ports again.
+ *
+ * <p>This class is not thread-safe; it is used under synchronization by the chain lock.
+ */
+final class ChainExecutionPlan {
+    final Chain chain;
+    final ChainBlock[] blocks;
+    // - all blocks, topologically sorted: sources are placed before their consumers
+    final List<ChainBlock> blockList;
+    final ChainInputPort[] inputSlots;
+    // - all connected input ports, grouped by consumer blocks in the order of "blocks" array
+    final int[] inputSlotBlocks;
+    // - index of the consumer block for every input slot
+    final int[] inputSlotSources;
+    // - index of the source block for every input slot
+    final int[] blockInputsFrom;
+    // - input slots of the block #k are blockInputsFrom[k]..blockInputsFrom[k+1]-1
+    final int[] consumerSlots;
+    // - input slots, grouped by source blocks
+    final int[] blockConsumersFrom;
+    // - input slots, connected to outputs of the block #k, are consumerSlots[blockConsumersFrom[k]..k+1]
+    final ChainBlock[] standardOutputs;
+
+    private final List<ChainBlock> necessaryOutputs = new ArrayList<>();
+    private ChainScheduler scheduler = null;
+
+    private ChainExecutionPlan(Chain chain) {
+        this.chain = Objects.requireNonNull(chain, "Null chain");
+        final Collection<ChainBlock> all = chain.getAllBlocks().values();
+        this.blocks = sortTopologically(all);
+        this.blockList = Collections.unmodifiableList(java.util.Arrays.asList(blocks));
+        final int n = blocks.length;
+        for (int k = 0; k < n; k++) {
+            blocks[k].planIndex = k;
+        }
+        final List<ChainInputPort> slots = new ArrayList<>();
+        this.blockInputsFrom = new int[n + 1];
+        for (int k = 0; k < n; k++) {
+            blockInputsFrom[k] = slots.size();
+            for (ChainInputPort inputPort : blocks[k].inputPorts.values()) {
+                if (inputPort.isConnected()) {
+                    slots.add(inputPort);
+                }
+            }
+        }
+        blockInputsFrom[n] = slots.size();
+        this.inputSlots = slots.toArray(new ChainInputPort[0]);
+        final int m = inputSlots.length;
+        this.inputSlotBlocks = new int[m];
+        this.inputSlotSources = new int[m];
+        final int[] numberOfConsumers = new int[n];
+        for (int k = 0; k < n; k++) {
+            for (int slot = blockInputsFrom[k]; slot < blockInputsFrom[k + 1]; slot++) {
+                inputSlotBlocks[slot] = k;
+                final int source = inputSlots[slot].connectedSourceBlock().planIndex;
+                inputSlotSources[slot] = source;
+                numberOfConsumers[source]++;
+            }
+        }
+        this.blockConsumersFrom = new int[n + 1];
+        for (int k = 0; k < n; k++) {
+            blockConsumersFrom[k + 1] = blockConsumersFrom[k] + numberOfConsumers[k];
+        }
+        this.consumerSlots = new int[m];
+        final int[] positions = java.util.Arrays.copyOf(blockConsumersFrom, n);
+        for (int slot = 0; slot < m; slot++) {
+            consumerSlots[positions[inputSlotSources[slot]]++] = slot;
+        }
+        this.standardOutputs = chain.getAllOutputs().toArray(new ChainBlock[0]);
+    }
+
+    static ChainExecutionPlan newInstance(Chain chain) {
+        return new ChainExecutionPlan(chain);
+    }
+
+    int numberOfBlocks() {
+        return blocks.length;
+    }
+
+    int numberOfInputSlots() {
+        return inputSlots.length;
+    }
+
+    int numberOfConsumers(int blockIndex) {
+        return blockConsumersFrom[blockIndex + 1] - blockConsumersFrom[blockIndex];
+    }
+
+    List<ChainBlock> necessaryOutputs(ExecutionBlock executor) {
+        necessaryOutputs.clear();
+        for (ChainBlock block : standardOutputs) {
+            if (executor.isOutputNecessary(block.getStandardInputOutputName())) {
+                necessaryOutputs.add(block);
+            }
+        }
+        return necessaryOutputs;
+    }
+
+    ChainScheduler scheduler() {
+        if (scheduler == null) {
+            scheduler = ChainScheduler.newInstance(this);
+        }
+        return scheduler;
+    }
+
+    // Kahn's algorithm; the order of independent blocks is preserved
+    private static ChainBlock[] sortTopologically(Collection<ChainBlock> blocks) {
+        final ChainBlock[] source = blocks.toArray(new ChainBlock[0]);
+        final int n = source.length;
+        for (int k = 0; k < n; k++) {
+            source[k].planIndex = k;
+        }
+        final int[] numberOfSources = new int[n];
+        for (int k = 0; k < n; k++) {
+            for (ChainInputPort inputPort : source[k].inputPorts.values()) {
+                if (inputPort.isConnected()) {
+                    numberOfSources[k]++;
+                }
+            }
+        }
+        final int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int k = 0; k < n; k++) {
+            if (numberOfSources[k] == 0) {
+                queue[tail++] = k;
+            }
+        }
+        final ChainBlock[] result = new ChainBlock[n];
+        final boolean[] placed = new boolean[n];
+        int count = 0;
+        while (head < tail) {
+            final int k = queue[head++];
+            result[count++] = source[k];
+            placed[k] = true;
+            for (ChainOutputPort outputPort : source[k].outputPorts.values()) {
+                for (ChainInputPort consumer : outputPort.connected.values()) {
+                    final int c = consumer.block.planIndex;
+                    if (--numberOfSources[c] == 0) {
+                        queue[tail++] = c;
+                    }
+                }
+            }
+        }
+        for (int k = 0; k < n && count < n; k++) {
+            if (!placed[k]) {
+                result[count++] = source[k];
+                // - recursive dependence: it will be detected by checkRecursiveDependencies,
+                // here we just add such blocks to the end
+            }
+        }
+        return result;
+    }
+}
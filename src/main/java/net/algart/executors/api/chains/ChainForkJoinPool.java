@@ -0,0 +1,206 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.chains;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dedicated fork-join pool, used for executing chains with the given ID instead of
+ * the {@link ForkJoinPool#commonPool() common pool}: see {@link Chain#setParallelism(int)}.
+ * It allows isolating several independent chains, executed in the same JVM, from each other.
+ *
+ * <p>The pools are shared between all copies of the chain with the same ID and the same parallelism
+ * (for example, between the {@link ChainPool pooled copies} of the same sub-chain).
+ * Every chain {@link #acquire(String, int) acquires} the pool while the first usage and
+ * {@link #release() releases} it in {@link Chain#freeResources()}; the pool, released by all its users,
+ * is removed from the global registry and shut down.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class ChainForkJoinPool {
+    private static final Map<Key, ChainForkJoinPool> POOLS = new HashMap<>();
+    // - guarded by POOLS
+
+    private final String key;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+    private final long creationTime = System.nanoTime();
+    private final AtomicLong numberOfTasks = new AtomicLong();
+    private final AtomicLong busyTime = new AtomicLong();
+    private int numberOfUsers = 0;
+    // - guarded by POOLS
+
+    private ChainForkJoinPool(String key, int parallelism) {
+        this.key = Objects.requireNonNull(key, "Null key");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Zero or negative parallelism " + parallelism);
+        }
+        this.parallelism = parallelism;
+        final AtomicInteger threadIndex = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            final ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("chain-" + key + "-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Returns the pool with the given key and parallelism, shared between all callers of this method,
+     * and increments the number of its users. Every call must be paired with {@link #release()}.
+     *
+     * @param key         usually the {@link Chain#id() chain ID}.
+     * @param parallelism the parallelism level of the pool.
+     * @return shared pool.
+     */
+    public static ChainForkJoinPool acquire(String key, int parallelism) {
+        Objects.requireNonNull(key, "Null key");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Zero or negative parallelism " + parallelism);
+        }
+        synchronized (POOLS) {
+            final ChainForkJoinPool result = POOLS.computeIfAbsent(
+                    new Key(key, parallelism), k -> new ChainForkJoinPool(k.key, k.parallelism));
+            result.numberOfUsers++;
+            return result;
+        }
+    }
+
+    /**
+     * Decrements the number of users of this pool. When it becomes zero, the pool is removed
+     * from the registry and shut down: the tasks, which are already submitted, are completed,
+     * and the next {@link #acquire(String, int)} call will create a new pool.
+     */
+    public void release() {
+        synchronized (POOLS) {
+            if (numberOfUsers <= 0) {
+                throw new IllegalStateException("Releasing " + this + ", which is not acquired");
+            }
+            if (--numberOfUsers > 0) {
+                return;
+            }
+            POOLS.remove(new Key(key, parallelism));
+        }
+        pool.shutdown();
+    }
+
+    public static int numberOfPools() {
+        synchronized (POOLS) {
+            return POOLS.size();
+        }
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task, "Null task");
+        pool.execute(() -> {
+            final long t = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                numberOfTasks.incrementAndGet();
+                busyTime.addAndGet(System.nanoTime() - t);
+            }
+        });
+    }
+
+    /**
+     * Executes the given task in this pool and waits for its completion. All parallel streams,
+     * used inside the task, are also executed in this pool.
+     *
+     * @param task some action.
+     */
+    public void invoke(Runnable task) {
+        Objects.requireNonNull(task, "Null task");
+        final long t = System.nanoTime();
+        try {
+            pool.invoke(ForkJoinTask.adapt(task));
+        } finally {
+            numberOfTasks.incrementAndGet();
+            busyTime.addAndGet(System.nanoTime() - t);
+        }
+    }
+
+    public long numberOfTasks() {
+        return numberOfTasks.get();
+    }
+
+    /**
+     * Returns the summary time (in nanoseconds), spent by all tasks, passed to {@link #execute(Runnable)}
+     * and {@link #invoke(Runnable)}.
+     *
+     * @return summary busy time.
+     */
+    public long busyTime() {
+        return busyTime.get();
+    }
+
+    /**
+     * Returns the estimated utilisation of the pool since its creation: the part of time, when its threads
+     * executed some tasks, from 0.0 (the pool was idle) to 1.0 (all threads were busy all the time).
+     *
+     * @return average utilisation of the pool.
+     */
+    public double utilisation() {
+        final long elapsed = System.nanoTime() - creationTime;
+        return elapsed <= 0 ? 0.0 : Math.min(1.0, (double) busyTime.get() / ((double) elapsed * parallelism));
+    }
+
+    public int activeThreadCount() {
+        return pool.getActiveThreadCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "fork-join pool \"%s\" (parallelism %d): %d tasks, %.3f ms busy, %.1f%% utilisation, "
+                        + "%d threads (%d active), %d queued tasks, %d steals",
+                key, parallelism, numberOfTasks.get(), busyTime.get() * 1e-6, utilisation() * 100.0,
+                pool.getPoolSize(), pool.getActiveThreadCount(), pool.getQueuedTaskCount(), pool.getStealCount());
+    }
+
+    private record Key(String key, int parallelism) {
+    }
+}
@@ -155,7 +155,9 @@ public final class ChainInputPort extends ChainPort<ChainOutputPort> {
             if (OPTIMIZE_COPYING_DATA
                     && !hasConnectedReadOnlyExecutors
                     && countOfConnectedInputs == 0
-                    && !connectedSource.isStandardOutput()) {
+                    && !connectedSource.isStandardOutput()
+                    && !chain.retainingResults
+                    && !connectedSource.block.loopInvariant) {
                 // Note: if connected source port has connected read-only executors,
                 // we must not use this "exchange" technique at all.
                 // In this case, we will copy the reference for some links (shallow copy without cloning),
@@ -164,6 +166,8 @@ public final class ChainInputPort extends ChainPort<ChainOutputPort> {
                 // Also note: we need to preserve all standard outputs if they are connected (abnormal,
                 // but possible situation): they are the final results of the chain and will
                 // be read from "standard-output" ports.
+                // And we must preserve all outputs while Chain.executeIncremental() and all loop-invariant
+                // outputs while repeating the chain: they will be reused.
 //                System.out.println("!!! Exchange with " + block.getExecutor().getClass().getSimpleName());
                 this.data.exchange(connectedSource.getData());
             } else {
@@ -190,7 +194,12 @@ public final class ChainInputPort extends ChainPort<ChainOutputPort> {
 
     @Override
     public ChainInputPort cleanCopy(ChainBlock newBlock) {
-        return new ChainInputPort(newBlock, id, name, portType, dataType);
+        return cleanCopy(newBlock, id);
+    }
+
+    @Override
+    ChainInputPort cleanCopy(ChainBlock newBlock, String newId) {
+        return new ChainInputPort(newBlock, newId, name, portType, dataType);
     }
 
     ChainOutputPort connectedOutputPort() {
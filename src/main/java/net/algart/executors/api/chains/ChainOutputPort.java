@@ -136,6 +136,11 @@ public final class ChainOutputPort extends ChainPort<ChainInputPort> {
 
     @Override
     public ChainOutputPort cleanCopy(ChainBlock newBlock) {
-        return new ChainOutputPort(newBlock, id, name, portType, dataType);
+        return cleanCopy(newBlock, id);
+    }
+
+    @Override
+    ChainOutputPort cleanCopy(ChainBlock newBlock, String newId) {
+        return new ChainOutputPort(newBlock, newId, name, portType, dataType);
     }
 }
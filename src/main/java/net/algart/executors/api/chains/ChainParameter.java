@@ -51,6 +51,12 @@ public final class ChainParameter {
         return result;
     }
 
+    public static ChainParameter of(String name, Object value) {
+        final ChainParameter result = newInstance(name);
+        result.value = value;
+        return result;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,352 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.api.chains;
+
+import net.algart.contexts.InterruptionException;
+import net.algart.executors.api.data.Data;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Pipelined execution of the iterations of a repeated chain (see {@link Chain#setPipelinedLoops(boolean)}).
+ *
+ * <p>Every block has its own counter of finished iterations and can start the next iteration as soon as
+ * its sources have finished this iteration and it is known that the chain will be repeated again,
+ * i.e. some block of the previous iteration has requested {@link ChainBlock#needToRepeat() repeating}.
+ * So, a block of the iteration <i>N</i>+1 can be executed simultaneously with the blocks
+ * of the iteration <i>N</i>, which it does not depend on. The output data of every iteration are buffered
+ * in the input "slots" of the consumers; to limit the used memory, the blocks can run ahead of the slowest
+ * block not more than by {@link #DEPTH} iterations (2 means "double buffering").
+ *
+ * <p>The first iteration is executed as usual by the chain: only after it we know that the chain is repeated.
+ * The blocks with conditional inputs (see {@link ChainInputPort#necessary()}) are not supported:
+ * see {@link #isApplicable(ChainExecutionPlan, Collection)}.
+ *
+ * <p>This class is used under synchronization by the chain lock; one instance is used for one loop.
+ */
+final class ChainPipeline {
+    static final int DEPTH = 2;
+
+    private final ChainExecutionPlan plan;
+    private final ChainForkJoinPool dedicatedPool;
+    private final int[] blocks;
+    // - indexes of the necessary run-time blocks in the plan
+    private final boolean[] necessary;
+    private final int[] numberOfFinishedIterations;
+    private final boolean[] running;
+    private final ArrayDeque<Data>[] buffers;
+    // - data, passed to the input slots, for the following iterations; null for slots without buffering
+    private final Set<Integer> repeatedIterations = new HashSet<>();
+    // - iterations, after which some block has requested repeating
+    private int stopIteration = Integer.MAX_VALUE;
+    private int numberOfRunning = 0;
+    private Throwable exception = null;
+
+    private final Object lock = new Object();
+
+    @SuppressWarnings("unchecked")
+    private ChainPipeline(ChainExecutionPlan plan, Collection<ChainBlock> blocksToExecute) {
+        this.plan = Objects.requireNonNull(plan, "Null plan");
+        this.dedicatedPool = plan.chain.forkJoinPool();
+        final int n = plan.numberOfBlocks();
+        this.necessary = necessaryBlocks(plan, blocksToExecute);
+        this.blocks = IntStream.range(0, n).filter(k -> necessary[k]).toArray();
+        this.numberOfFinishedIterations = new int[n];
+        Arrays.fill(numberOfFinishedIterations, 1);
+        // - the first iteration #0 is already executed
+        this.running = new boolean[n];
+        this.buffers = new ArrayDeque[plan.numberOfInputSlots()];
+        for (int k : blocks) {
+            for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                if (necessary[plan.inputSlotSources[slot]]) {
+                    buffers[slot] = new ArrayDeque<>();
+                }
+            }
+        }
+        repeatedIterations.add(0);
+    }
+
+    static ChainPipeline newInstance(ChainExecutionPlan plan, Collection<ChainBlock> blocksToExecute) {
+        return new ChainPipeline(plan, blocksToExecute);
+    }
+
+    static boolean isApplicable(ChainExecutionPlan plan, Collection<ChainBlock> blocksToExecute) {
+        if (!plan.chain.isMultithreading()) {
+            return false;
+        }
+        final boolean[] necessary = necessaryBlocks(plan, blocksToExecute);
+        for (int k = 0; k < necessary.length; k++) {
+            if (necessary[k]) {
+                for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                    if (!ChainBlock.isAlwaysNecessary(plan.inputSlots[slot])) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes all iterations after the first one, until no block requests repeating.
+     * All blocks must be {@link ChainBlock#prepareExecution() prepared} before calling this method.
+     */
+    void execute() {
+        boolean interrupted = false;
+        try {
+            synchronized (lock) {
+                for (; ; ) {
+                    if (exception == null) {
+                        for (int k : blocks) {
+                            if (canStart(k)) {
+                                start(k);
+                            }
+                        }
+                    }
+                    if (numberOfRunning == 0) {
+                        if (exception != null || isFinished()) {
+                            break;
+                        }
+                        throw new AssertionError("Pipeline of " + plan.chain + " cannot start any block");
+                    }
+                    try {
+                        waitForChanges();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        if (exception == null) {
+                            exception = new InterruptionException(e);
+                        }
+                        // - we must wait for the running blocks in any case: they use the buffers
+                    }
+                }
+            }
+        } finally {
+            for (ArrayDeque<Data> buffer : buffers) {
+                if (buffer != null) {
+                    buffer.forEach(Data::remove);
+                    buffer.clear();
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final Throwable exception = this.exception;
+        if (exception != null) {
+            if (exception instanceof RuntimeException e) {
+                throw e;
+            }
+            if (exception instanceof Error e) {
+                throw e;
+            }
+            throw new AssertionError("Unexpected checked exception", exception);
+        }
+    }
+
+    // Must be called under synchronization
+    private boolean canStart(int k) {
+        if (running[k]) {
+            return false;
+        }
+        final int iteration = numberOfFinishedIterations[k];
+        if (iteration >= stopIteration || !isRepeatedAfter(iteration - 1)) {
+            return false;
+        }
+        for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+            if (buffers[slot] != null && numberOfFinishedIterations[plan.inputSlotSources[slot]] <= iteration) {
+                return false;
+            }
+        }
+        for (int j : blocks) {
+            if (numberOfFinishedIterations[j] <= iteration - DEPTH) {
+                return false;
+                // - too far ahead: we should not accumulate data in the buffers
+            }
+        }
+        return true;
+    }
+
+    // Must be called under synchronization
+    private boolean isRepeatedAfter(int iteration) {
+        if (repeatedIterations.contains(iteration)) {
+            return true;
+        }
+        for (int j : blocks) {
+            if (numberOfFinishedIterations[j] <= iteration) {
+                return false;
+                // - unknown yet
+            }
+        }
+        stopIteration = Math.min(stopIteration, iteration + 1);
+        return false;
+    }
+
+    // Must be called under synchronization
+    private boolean isFinished() {
+        for (int k : blocks) {
+            if (numberOfFinishedIterations[k] < stopIteration) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Must be called under synchronization
+    private void start(int k) {
+        final int iteration = numberOfFinishedIterations[k];
+        final List<Data> inputs = new ArrayList<>();
+        for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+            inputs.add(buffers[slot] == null ? null : buffers[slot].pollFirst());
+        }
+        running[k] = true;
+        numberOfRunning++;
+        final Runnable task = () -> {
+            Throwable exception = null;
+            boolean repeat = false;
+            List<Data> outputs = null;
+            try {
+                repeat = executeBlock(k, inputs);
+                outputs = passOutputs(k);
+            } catch (Throwable e) {
+                exception = e;
+            }
+            synchronized (lock) {
+                running[k] = false;
+                numberOfRunning--;
+                numberOfFinishedIterations[k]++;
+                if (exception != null) {
+                    if (this.exception == null) {
+                        this.exception = exception;
+                    }
+                } else {
+                    if (repeat) {
+                        repeatedIterations.add(iteration);
+                    }
+                    int index = 0;
+                    for (int i = plan.blockConsumersFrom[k], to = plan.blockConsumersFrom[k + 1]; i < to; i++) {
+                        final int slot = plan.consumerSlots[i];
+                        if (buffers[slot] != null) {
+                            buffers[slot].addLast(outputs.get(index++));
+                        }
+                    }
+                }
+                repeatedIterations.removeIf(this::isPassedByAll);
+                lock.notifyAll();
+            }
+        };
+        if (dedicatedPool != null) {
+            dedicatedPool.execute(task);
+        } else {
+            ForkJoinPool.commonPool().execute(task);
+        }
+    }
+
+    private boolean executeBlock(int k, List<Data> inputs) {
+        final ChainBlock block = plan.blocks[k];
+        block.prepareExecution();
+        int index = 0;
+        for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+            final Data data = inputs.get(index++);
+            final ChainInputPort inputPort = plan.inputSlots[slot];
+            synchronized (plan.chain.blocksInteractionLock) {
+                if (data != null) {
+                    inputPort.getData().exchange(data);
+                } else {
+                    inputPort.getData().setTo(inputPort.connectedOutputPort().getData(), true);
+                    // - the source is not executed at run time (for example, at loading time)
+                }
+            }
+        }
+        block.execute();
+        return block.repeatRequested;
+    }
+
+    // Returns data for all buffered consumer slots of the block
+    private List<Data> passOutputs(int k) {
+        final List<Data> result = new ArrayList<>();
+        synchronized (plan.chain.blocksInteractionLock) {
+            for (int i = plan.blockConsumersFrom[k], to = plan.blockConsumersFrom[k + 1]; i < to; i++) {
+                final int slot = plan.consumerSlots[i];
+                if (buffers[slot] != null) {
+                    result.add(plan.inputSlots[slot].connectedOutputPort().getData().clone());
+                }
+            }
+        }
+        return result;
+    }
+
+    // Must be called under synchronization
+    private void waitForChanges() throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            private boolean released = false;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                lock.wait();
+                released = true;
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return released;
+            }
+        });
+        // - allows the fork-join pool to compensate this thread, if it is a worker of the same pool
+    }
+
+    // Must be called under synchronization
+    private boolean isPassedByAll(int iteration) {
+        for (int k : blocks) {
+            if (numberOfFinishedIterations[k] <= iteration + 1) {
+                return false;
+                // - isRepeatedAfter(iteration) is still necessary for starting the iteration + 1
+            }
+        }
+        return true;
+    }
+
+    private static boolean[] necessaryBlocks(ChainExecutionPlan plan, Collection<ChainBlock> blocksToExecute) {
+        final boolean[] result = new boolean[plan.numberOfBlocks()];
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (ChainBlock block : blocksToExecute) {
+            queue.add(block.planIndex);
+        }
+        while (!queue.isEmpty()) {
+            final int k = queue.poll();
+            if (result[k] || !plan.blocks[k].isExecutedAtRunTime()) {
+                continue;
+            }
+            result[k] = true;
+            for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                queue.add(plan.inputSlotSources[slot]);
+            }
+        }
+        return result;
+    }
+}
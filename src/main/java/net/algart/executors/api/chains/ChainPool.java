@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.chains;
+
+import net.algart.arrays.Arrays;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+
+/**
+ * Pool of {@link Chain#cleanCopy() clean copies} of some chain.
+ *
+ * <p>Every caller, that needs to execute the chain, {@link #borrow() borrows} its own copy,
+ * so that several threads can execute the same chain simultaneously (each copy has its own
+ * blocks, executors and ports), and {@link #giveBack(Chain) gives it back} after usage.
+ * The pool retains not more than {@link #getMaximalSize()} idle copies: extra copies are freed.
+ *
+ * <p>Note that {@link #borrow()} never waits: if there are no idle copies, it creates a new one.
+ * It is important for recursive chains, where the same chain is called from itself.
+ * So, only the number of <i>idle</i> copies is limited; the number of copies that are borrowed
+ * at the same time is unbounded (it is the number of simultaneous and nested calls of the chain).
+ *
+ * <p>This class is thread-safe.
+ */
+public final class ChainPool implements AutoCloseable {
+    public static final int DEFAULT_MAXIMAL_SIZE = Math.max(1, Arrays.SystemSettings.getIntProperty(
+            "net.algart.executors.api.chainPoolSize", Runtime.getRuntime().availableProcessors()));
+
+    private final Chain original;
+    private final ArrayDeque<Chain> idle = new ArrayDeque<>();
+    private volatile int maximalSize;
+    private long numberOfCreatedCopies = 0;
+    private long numberOfBorrowings = 0;
+    private boolean closed = false;
+
+    private final Object lock = new Object();
+
+    private ChainPool(Chain original, int maximalSize) {
+        this.original = Objects.requireNonNull(original, "Null original chain");
+        setMaximalSize(maximalSize);
+    }
+
+    public static ChainPool newInstance(Chain original) {
+        return newInstance(original, DEFAULT_MAXIMAL_SIZE);
+    }
+
+    public static ChainPool newInstance(Chain original, int maximalSize) {
+        return new ChainPool(original, maximalSize);
+    }
+
+    public Chain original() {
+        return original;
+    }
+
+    public int getMaximalSize() {
+        return maximalSize;
+    }
+
+    /**
+     * Sets the maximal number of idle chain copies, stored in this pool.
+     * It does not limit the number of borrowed copies: {@link #borrow()} never waits.
+     *
+     * @param maximalSize new maximal number of stored copies.
+     * @return a reference to this object.
+     */
+    public ChainPool setMaximalSize(int maximalSize) {
+        if (maximalSize < 0) {
+            throw new IllegalArgumentException("Negative maximal pool size " + maximalSize);
+        }
+        this.maximalSize = maximalSize;
+        return this;
+    }
+
+    public Chain borrow() {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Cannot borrow chain from the closed pool: " + this);
+            }
+            numberOfBorrowings++;
+            final Chain result = idle.pollLast();
+            // - LIFO: the last returned copy probably has "hot" data in CPU caches
+            if (result != null) {
+                return result;
+            }
+            numberOfCreatedCopies++;
+        }
+        return original.cleanCopy();
+        // - creating outside the synchronization: it may require essential time
+    }
+
+    public void giveBack(Chain chain) {
+        Objects.requireNonNull(chain, "Null chain");
+        if (!chain.id().equals(original.id())) {
+            throw new IllegalArgumentException("The chain " + chain + " was not borrowed from this pool");
+        }
+        chain.setCaller(null);
+        // - no reason to store a reference to the previous caller
+        synchronized (lock) {
+            if (!closed && idle.size() < maximalSize) {
+                idle.addLast(chain);
+                return;
+            }
+        }
+        chain.freeResources();
+    }
+
+    public int numberOfIdleChains() {
+        synchronized (lock) {
+            return idle.size();
+        }
+    }
+
+    public long numberOfCreatedCopies() {
+        synchronized (lock) {
+            return numberOfCreatedCopies;
+        }
+    }
+
+    public long numberOfBorrowings() {
+        synchronized (lock) {
+            return numberOfBorrowings;
+        }
+    }
+
+    /**
+     * Frees all idle chain copies. Chains that are borrowed now will be freed while giving them back.
+     */
+    @Override
+    public void close() {
+        final Chain[] chains;
+        synchronized (lock) {
+            closed = true;
+            chains = idle.toArray(new Chain[0]);
+            idle.clear();
+        }
+        for (Chain chain : chains) {
+            chain.freeResources();
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return "pool of " + original + " (ID " + original.id() + "): "
+                    + idle.size() + " idle copies (maximum " + maximalSize + "), "
+                    + numberOfCreatedCopies + " created for " + numberOfBorrowings + " borrowings"
+                    + (closed ? ", closed" : "");
+        }
+    }
+}
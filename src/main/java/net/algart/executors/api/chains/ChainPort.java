@@ -113,6 +113,8 @@ abstract class ChainPort<REVERSE extends ChainPort<?>> {
      */
     public abstract ChainPort<REVERSE> cleanCopy(ChainBlock newBlock);
 
+    abstract ChainPort<REVERSE> cleanCopy(ChainBlock newBlock, String newId);
+
     @Override
     public String toString() {
         return this.getClass().getSimpleName() + "{" +
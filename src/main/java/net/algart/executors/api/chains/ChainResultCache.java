@@ -0,0 +1,427 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.chains;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.PNumberArray;
+import net.algart.executors.api.ExecutionBlock;
+import net.algart.executors.api.NonDeterministicExecution;
+import net.algart.executors.api.data.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Global LRU cache of the results of chain blocks, used by the chains with enabled
+ * {@link Chain#setMemoization(boolean) memoization}.
+ *
+ * <p>Before executing a block, the chain calculates a 128-bit fingerprint of the parameters
+ * and the content of all input data of its executor. If the cache contains the results for the same
+ * chain ID, block ID, executor ID and fingerprint, they are copied into the output ports
+ * instead of calling the executor. The executors, implementing {@link NonDeterministicExecution},
+ * are always executed. The cached results are not used, if some output port is
+ * {@link ExecutionBlock#checkOutputNecessary(Port) necessary} now, but was not necessary
+ * (and so, probably, was not calculated) while storing the results.
+ *
+ * <p>The summary size of the cached data is limited by {@link #getMaximalMemory()}; when the limit
+ * is exceeded, the least recently used results are removed.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class ChainResultCache {
+    public static final long DEFAULT_MAXIMAL_MEMORY = Math.max(0L, Arrays.SystemSettings.getLongProperty(
+            "net.algart.executors.api.memoizationMemory", 256L * 1024L * 1024L));
+
+    private static final ChainResultCache INSTANCE = new ChainResultCache(DEFAULT_MAXIMAL_MEMORY);
+
+    private static final long C1 = 0x9E3779B97F4A7C15L;
+    private static final long C2 = 0xC2B2AE3D27D4EB4FL;
+    private static final int HASHING_BUFFER_LENGTH = 65536;
+    // - must be divisible by 8: bytes are hashed by groups of 8
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // - access order: the first entry is the least recently used
+    private long maximalMemory;
+    private long usedMemory = 0;
+    private long numberOfHits = 0;
+    private long numberOfMisses = 0;
+    private long numberOfEvictions = 0;
+
+    private ChainResultCache(long maximalMemory) {
+        setMaximalMemory(maximalMemory);
+    }
+
+    public static ChainResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized long getMaximalMemory() {
+        return maximalMemory;
+    }
+
+    /**
+     * Sets the maximal summary size (in bytes) of all cached data. Zero value disables caching.
+     *
+     * @param maximalMemory maximal memory, used by this cache.
+     * @return a reference to this object.
+     */
+    public synchronized ChainResultCache setMaximalMemory(long maximalMemory) {
+        if (maximalMemory < 0) {
+            throw new IllegalArgumentException("Negative maximal memory " + maximalMemory);
+        }
+        this.maximalMemory = maximalMemory;
+        evict();
+        return this;
+    }
+
+    public synchronized long usedMemory() {
+        return usedMemory;
+    }
+
+    public synchronized int numberOfEntries() {
+        return entries.size();
+    }
+
+    public synchronized long numberOfHits() {
+        return numberOfHits;
+    }
+
+    public synchronized long numberOfMisses() {
+        return numberOfMisses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        usedMemory = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "chain result cache: %d entries, %.3f/%.3f MB used, %d hits, %d misses, %d evictions",
+                entries.size(), usedMemory / 1048576.0, maximalMemory / 1048576.0,
+                numberOfHits, numberOfMisses, numberOfEvictions);
+    }
+
+    // Must be called after copying input ports to the executor, but before its execution
+    static Key key(String chainId, String blockId, String executorId, ExecutionBlock executor) {
+        final Fingerprint fingerprint = new Fingerprint();
+        long parametersHash = 0;
+        for (Map.Entry<String, Object> parameter : executor.parameters().entrySet()) {
+            final Fingerprint f = new Fingerprint();
+            f.add(parameter.getKey());
+            f.add(String.valueOf(parameter.getValue()));
+            parametersHash += f.hash1() ^ Long.rotateLeft(f.hash2(), 17);
+            // - sum: independent of the order of parameters
+        }
+        fingerprint.add(parametersHash);
+        long inputsHash = 0;
+        for (Port port : executor.allInputPorts()) {
+            final Fingerprint f = new Fingerprint();
+            f.add(port.getName());
+            f.add(port.getData());
+            inputsHash += f.hash1() ^ Long.rotateLeft(f.hash2(), 17);
+            fingerprint.add(f.hash2());
+        }
+        fingerprint.add(inputsHash);
+        return new Key(chainId, blockId, executorId, fingerprint.hash1(), fingerprint.hash2());
+    }
+
+    boolean restore(Key key, ExecutionBlock executor) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                numberOfMisses++;
+                return false;
+            }
+        }
+        for (int k = 0; k < entry.names.length; k++) {
+            final Port port = executor.getOutputPort(entry.names[k]);
+            if (port == null || (!entry.necessary[k] && !entry.outputs[k].isInitialized()
+                    && executor.checkOutputNecessary(port))) {
+                synchronized (this) {
+                    numberOfMisses++;
+                }
+                return false;
+                // - the set of ports was changed (maybe the executor was reloaded),
+                // or the executor probably skipped this output, because it was not necessary
+            }
+        }
+        for (int k = 0; k < entry.names.length; k++) {
+            final Data data = executor.getData(entry.names[k]);
+            if (entry.outputs[k].isInitialized()) {
+                data.setTo(entry.outputs[k], true);
+            } else {
+                data.remove();
+            }
+        }
+        synchronized (this) {
+            numberOfHits++;
+        }
+        return true;
+    }
+
+    void store(Key key, ExecutionBlock executor) {
+        synchronized (this) {
+            if (maximalMemory == 0) {
+                return;
+            }
+        }
+        final Collection<Port> outputPorts = executor.allOutputPorts();
+        final String[] names = new String[outputPorts.size()];
+        final Data[] outputs = new Data[names.length];
+        final boolean[] necessary = new boolean[names.length];
+        long size = 64L * (names.length + 1);
+        int k = 0;
+        for (Port port : outputPorts) {
+            final Data data = port.getData();
+            names[k] = port.getName();
+            outputs[k] = data == null ? port.getDataType().createEmpty() : data.clone();
+            necessary[k] = executor.checkOutputNecessary(port);
+            size += estimatedSize(outputs[k]);
+            k++;
+        }
+        synchronized (this) {
+            if (size > maximalMemory) {
+                return;
+            }
+            final Entry previous = entries.put(key, new Entry(names, outputs, necessary, size));
+            if (previous != null) {
+                usedMemory -= previous.size;
+            }
+            usedMemory += size;
+            evict();
+        }
+    }
+
+    // Must be called under synchronization
+    private void evict() {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (usedMemory > maximalMemory && iterator.hasNext()) {
+            usedMemory -= iterator.next().size;
+            iterator.remove();
+            numberOfEvictions++;
+        }
+    }
+
+    static long estimatedSize(Data data) {
+        if (!data.isInitialized()) {
+            return 0;
+        }
+        if (data instanceof SScalar scalar) {
+            final String value = scalar.getValue();
+            return value == null ? 0 : 2L * value.length();
+        }
+        if (data instanceof SNumbers numbers) {
+            return numbers.longArrayLength() * Arrays.bitsPerElement(numbers.elementType()) / 8;
+        }
+        if (data instanceof SMat mat) {
+            long result = (long) mat.getNumberOfChannels() * mat.getDepth().bitsPerElement() / 8;
+            for (long dim : mat.getDimensions()) {
+                result *= dim;
+            }
+            return result;
+        }
+        return 0;
+    }
+
+    static final class Key {
+        private final String chainId;
+        private final String blockId;
+        private final String executorId;
+        private final long hash1;
+        private final long hash2;
+
+        private Key(String chainId, String blockId, String executorId, long hash1, long hash2) {
+            this.chainId = chainId;
+            this.blockId = blockId;
+            this.executorId = executorId;
+            this.hash1 = hash1;
+            this.hash2 = hash2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return hash1 == key.hash1 && hash2 == key.hash2
+                    && Objects.equals(chainId, key.chainId)
+                    && Objects.equals(blockId, key.blockId)
+                    && Objects.equals(executorId, key.executorId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash1) * 31 + Objects.hashCode(blockId);
+        }
+    }
+
+    private record Entry(String[] names, Data[] outputs, boolean[] necessary, long size) {
+    }
+
+    // Two independent 64-bit hashes: the probability of collision of both is negligible
+    private static final class Fingerprint {
+        private long h1 = 0x243F6A8885A308D3L;
+        private long h2 = 0x13198A2E03707344L;
+
+        void add(long value) {
+            h1 = Long.rotateLeft(h1 ^ (value * C1), 31) * C2;
+            h2 = Long.rotateLeft(h2 + (value * C2), 27) * C1 + 0x52DCE729L;
+        }
+
+        void add(String s) {
+            if (s == null) {
+                add(-1L);
+                return;
+            }
+            add(s.length());
+            final int n = s.length();
+            int i = 0;
+            for (; i + 4 <= n; i += 4) {
+                add((long) s.charAt(i) | (long) s.charAt(i + 1) << 16
+                        | (long) s.charAt(i + 2) << 32 | (long) s.charAt(i + 3) << 48);
+            }
+            for (; i < n; i++) {
+                add(s.charAt(i));
+            }
+        }
+
+        void add(Data data) {
+            if (data == null) {
+                add(-2L);
+                return;
+            }
+            add(data.type().ordinal());
+            add(data.getFlags());
+            if (!data.isInitialized()) {
+                return;
+            }
+            if (data instanceof SScalar scalar) {
+                add(scalar.getValue());
+            } else if (data instanceof SNumbers numbers) {
+                add(numbers.getBlockLength());
+                addArray(numbers.asNumberArray());
+                // - read-only access: unlike arrayReference(), it does not clone shared (copy-on-write) data
+                // and works also with large arrays
+            } else if (data instanceof SMat mat) {
+                add(mat.getDepthCode());
+                add(mat.getNumberOfChannels());
+                for (long dim : mat.getDimensions()) {
+                    add(dim);
+                }
+                add(mat.getByteBuffer());
+            } else {
+                add(System.identityHashCode(data));
+                // - unknown data type: no reuse
+            }
+        }
+
+        void add(ByteBuffer buffer) {
+            final ByteBuffer b = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            b.rewind();
+            add(b.remaining());
+            while (b.remaining() >= 8) {
+                add(b.getLong());
+            }
+            while (b.hasRemaining()) {
+                add(b.get());
+            }
+        }
+
+        private void addArray(PNumberArray array) {
+            final long length = array.length();
+            add(array.elementType().getName());
+            add(length);
+            final int bufferLength = (int) Math.min(length, HASHING_BUFFER_LENGTH);
+            final Object buffer = array.newJavaArray(bufferLength);
+            for (long p = 0; p < length; p += bufferLength) {
+                final int len = (int) Math.min(bufferLength, length - p);
+                array.getData(p, buffer, 0, len);
+                addElements(buffer, len);
+            }
+        }
+
+        private void addElements(Object array, int length) {
+            if (array instanceof byte[] a) {
+                int i = 0;
+                for (; i + 8 <= length; i += 8) {
+                    long v = 0;
+                    for (int j = 7; j >= 0; j--) {
+                        v = v << 8 | (a[i + j] & 0xFF);
+                    }
+                    add(v);
+                }
+                for (; i < length; i++) {
+                    add(a[i]);
+                }
+            } else if (array instanceof short[] a) {
+                for (int i = 0; i < length; i++) {
+                    add(a[i]);
+                }
+            } else if (array instanceof int[] a) {
+                for (int i = 0; i < length; i++) {
+                    add(a[i]);
+                }
+            } else if (array instanceof long[] a) {
+                for (int i = 0; i < length; i++) {
+                    add(a[i]);
+                }
+            } else if (array instanceof float[] a) {
+                for (int i = 0; i < length; i++) {
+                    add(Float.floatToRawIntBits(a[i]));
+                }
+            } else if (array instanceof double[] a) {
+                for (int i = 0; i < length; i++) {
+                    add(Double.doubleToRawLongBits(a[i]));
+                }
+            } else {
+                add(-3L);
+            }
+        }
+
+        long hash1() {
+            return mix(h1 ^ h2);
+        }
+
+        long hash2() {
+            return mix(h2 + C1);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
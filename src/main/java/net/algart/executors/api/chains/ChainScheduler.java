@@ -0,0 +1,816 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.chains;
+
+import net.algart.contexts.InterruptionException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Push-based ("ready-queue") scheduler of the chain blocks.
+ *
+ * <p>Unlike {@link ChainBlock#executeWithAllDependentInputs()}, which recursively pulls every block
+ * from its outputs and waits inside the monitors of the shared upstream blocks,
+ * this scheduler counts, for every necessary block, the number of its input ports,
+ * which are connected to not-ready source blocks, and dispatches the block to the worker threads
+ * only when this counter becomes zero. So, no worker thread ever waits for another block.
+ *
+ * <p>Inputs, which are "necessary sometimes" (see {@link ChainInputPort#necessary()}), are processed
+ * in two stages: first we wait for all always-necessary inputs, then ask the executor which conditional
+ * inputs are really necessary now, and only then activate the corresponding source blocks.
+ *
+ * <p>The scheduler works with the int indexes of {@link ChainExecutionPlan}: it does not use any maps
+ * and reuses all its arrays and lists while subsequent executions of the same plan.
+ * So, one instance may be used for many execution passes, but not simultaneously:
+ * all calls of {@link #execute(Collection)} must be synchronized by the chain lock.
+ *
+ * <p>In {@link ChainExecutionMode#FORK_JOIN} mode, the blocks are executed by the workers of the common
+ * fork-join pool or of the {@link Chain#forkJoinPool() dedicated pool} of the chain.
+ * In {@link ChainExecutionMode#VIRTUAL} mode, every ready block can get its own
+ * virtual thread (or a thread of the cached pool, if virtual threads are not supported by JVM),
+ * but the blocks, which are not {@link net.algart.executors.api.ExecutionBlock#isBlockingExecution()
+ * blocking}, must acquire one of {@link Chain#getMaximalNumberOfCpuBoundBlocks()} permits.
+ *
+ * <p>In {@link Chain#setSpeculativeExecution(boolean) speculative} mode, the sources of the conditional inputs
+ * may be activated together with the always-necessary inputs. Such blocks (and all blocks, activated
+ * only because of them) are marked as "speculative": their exceptions are stored, but not thrown.
+ * When some non-speculative block really needs a speculative one, the latter is "confirmed"
+ * together with its sources; if the results of a speculative block are not necessary,
+ * it is cancelled together with its speculative sources, which are not necessary for other blocks.
+ * A source is activated speculatively only if the estimated summary execution time of all blocks,
+ * which are activated because of it, does not exceed {@link Chain#getMaximalSpeculationTime()}.
+ *
+ * <p>In {@link Chain#setAdaptiveForking(boolean) adaptive forking} mode, the ready blocks, which are expected
+ * to be executed faster than passing them to another thread, are considered to be "light":
+ * they do not lead to starting new helpers and are executed by the threads, which are already working.
+ * The cost of passing a block to a helper is measured as the delay between submitting the helper
+ * and its start.
+ */
+final class ChainScheduler {
+    private static final byte NEW = 0;
+    private static final byte ACTIVATED = 1;
+    private static final byte FINISHED = 2;
+
+    private static final double INITIAL_FORK_OVERHEAD = 20_000.0;
+    // - nanoseconds; used until the first measurement
+    private static final double LIGHT_BLOCK_FACTOR = 2.0;
+    // - a block is light if it is expected to be faster than LIGHT_BLOCK_FACTOR * forkOverhead
+    private static final double FORK_OVERHEAD_SMOOTHING = 0.25;
+
+    private final ChainExecutionPlan plan;
+    private final ForkJoinPool pool;
+    private final int maxNumberOfForkJoinHelpers;
+
+    private final Object lock = new Object();
+    private final byte[] states;
+    private final int[] numberOfNotReadyInputs;
+    private final boolean[] waitingForConditionResolving;
+    private final boolean[] waitedSlots;
+    // - input slots, the source of which is waited by the consumer
+    private final List<ChainInputPort>[] necessaryAlways;
+    private final List<ChainInputPort>[] necessarySometimes;
+    private final List<ChainInputPort>[] necessaryNow;
+    private final int[] readyQueue;
+    private int readyHead = 0;
+    private int readyCount = 0;
+    private final int[] activationQueue;
+    private final boolean[] activationSpeculative;
+    // - whether the corresponding element of activationQueue is activated speculatively
+    private final boolean[] speculative;
+    private final boolean[] speculatedSlots;
+    // - conditional input slots, the source of which was activated speculatively by the consumer
+    private final int[] numberOfSpeculatingConsumers;
+    private final boolean[] started;
+    private final boolean[] cancelled;
+    private final Throwable[] speculativeExceptions;
+    private final int[] confirmationStack;
+    private final int[] traversalStack;
+    // - used for estimating the cost of speculation and for cancelling speculative sources
+    private final int[] traversalStamps;
+    private int traversalStamp = 0;
+    private final boolean[] light;
+    // - whether the block in the ready queue is light (for adaptive forking)
+    private int numberOfReadyLight = 0;
+    private double forkOverhead = INITIAL_FORK_OVERHEAD;
+    // - exponential moving average of the delay before starting a helper in nanoseconds;
+    // it is not reset between executions
+
+    private boolean multithreading = false;
+    private boolean speculation = false;
+    private boolean adaptiveForking = false;
+    private double maxSpeculationTime = 0.0;
+    // - in nanoseconds
+    private boolean virtual = false;
+    private ChainForkJoinPool dedicatedPool = null;
+    private int maxNumberOfHelpers = 0;
+    private Semaphore cpuBoundPermits = null;
+    private int numberOfCpuBoundPermits = 0;
+    private int numberOfUnfinished = 0;
+    private int numberOfRunning = 0;
+    private int numberOfHelpers = 0;
+    private int numberOfStartingHelpers = 0;
+    private boolean mainThreadWaiting = false;
+    private Throwable exception = null;
+
+    @SuppressWarnings("unchecked")
+    private ChainScheduler(ChainExecutionPlan plan) {
+        this.plan = Objects.requireNonNull(plan, "Null plan");
+        this.pool = ForkJoinPool.commonPool();
+        this.maxNumberOfForkJoinHelpers = Math.max(1, pool.getParallelism());
+        final int n = plan.numberOfBlocks();
+        final int m = plan.numberOfInputSlots();
+        this.states = new byte[n];
+        this.numberOfNotReadyInputs = new int[n];
+        this.waitingForConditionResolving = new boolean[n];
+        this.waitedSlots = new boolean[m];
+        this.necessaryAlways = new List[n];
+        this.necessarySometimes = new List[n];
+        this.necessaryNow = new List[n];
+        this.readyQueue = new int[2 * n + 1];
+        // - every block is added to the queue not more than twice (for resolving conditions and for execution)
+        this.activationQueue = new int[n + m + 1];
+        this.activationSpeculative = new boolean[n + m + 1];
+        this.speculative = new boolean[n];
+        this.speculatedSlots = new boolean[m];
+        this.numberOfSpeculatingConsumers = new int[n];
+        this.started = new boolean[n];
+        this.cancelled = new boolean[n];
+        this.speculativeExceptions = new Throwable[n];
+        this.confirmationStack = new int[m + 1];
+        // - every block is pushed to the stack not more than once for every connected input slot
+        this.traversalStack = new int[n];
+        this.traversalStamps = new int[n];
+        this.light = new boolean[n];
+    }
+
+    static ChainScheduler newInstance(ChainExecutionPlan plan) {
+        return new ChainScheduler(plan);
+    }
+
+    void execute(Collection<ChainBlock> blocks) {
+        Objects.requireNonNull(blocks, "Null blocks");
+        final int helpersToStart;
+        synchronized (lock) {
+            reset();
+            for (ChainBlock block : blocks) {
+                activate(indexOf(block), false);
+            }
+            helpersToStart = numberOfHelpersToStart();
+        }
+        startHelpers(helpersToStart);
+        runReadyBlocks(true);
+        final Throwable exception;
+        synchronized (lock) {
+            exception = this.exception;
+            this.exception = null;
+        }
+        if (exception != null) {
+            if (exception instanceof RuntimeException e) {
+                throw e;
+            }
+            if (exception instanceof Error e) {
+                throw e;
+            }
+            throw new AssertionError("Unexpected checked exception", exception);
+        }
+    }
+
+    // Must be called under synchronization
+    private void reset() {
+        Arrays.fill(states, NEW);
+        Arrays.fill(numberOfNotReadyInputs, 0);
+        Arrays.fill(waitingForConditionResolving, false);
+        Arrays.fill(waitedSlots, false);
+        Arrays.fill(speculative, false);
+        Arrays.fill(speculatedSlots, false);
+        Arrays.fill(numberOfSpeculatingConsumers, 0);
+        Arrays.fill(started, false);
+        Arrays.fill(cancelled, false);
+        Arrays.fill(speculativeExceptions, null);
+        readyHead = readyCount = 0;
+        numberOfReadyLight = 0;
+        multithreading = plan.chain.isMultithreading();
+        adaptiveForking = multithreading && plan.chain.isAdaptiveForking();
+        speculation = multithreading && !plan.chain.retainingResults;
+        // - results of the speculative blocks could be incorrect: they must not be reused
+        maxSpeculationTime = plan.chain.getMaximalSpeculationTime() * 1e6;
+        virtual = multithreading && plan.chain.getExecutionMode() == ChainExecutionMode.VIRTUAL;
+        dedicatedPool = multithreading && !virtual ? plan.chain.forkJoinPool() : null;
+        maxNumberOfHelpers = virtual ? plan.numberOfBlocks()
+                : dedicatedPool != null ? dedicatedPool.parallelism()
+                : maxNumberOfForkJoinHelpers;
+        if (virtual && numberOfCpuBoundPermits != plan.chain.getMaximalNumberOfCpuBoundBlocks()) {
+            numberOfCpuBoundPermits = plan.chain.getMaximalNumberOfCpuBoundBlocks();
+            cpuBoundPermits = new Semaphore(numberOfCpuBoundPermits);
+            // - no other threads can use the previous semaphore: all blocks of the previous pass are finished
+        }
+        numberOfUnfinished = numberOfRunning = numberOfHelpers = numberOfStartingHelpers = 0;
+        mainThreadWaiting = false;
+        exception = null;
+    }
+
+    private int indexOf(ChainBlock block) {
+        final int index = block.planIndex;
+        if (index < 0 || index >= plan.blocks.length || plan.blocks[index] != block) {
+            throw new IllegalArgumentException("The block does not belong to the chain execution plan: " + block);
+        }
+        return index;
+    }
+
+    // Must be called under synchronization
+    private void activate(int start, boolean speculatively) {
+        int head = 0, tail = 0;
+        activationSpeculative[tail] = speculatively;
+        activationQueue[tail++] = start;
+        // - queue instead of recursion: no risk of stack overflow for very long chains
+        while (head < tail) {
+            final boolean currentSpeculatively = activationSpeculative[head];
+            final int k = activationQueue[head++];
+            if (states[k] != NEW) {
+                if (!currentSpeculatively) {
+                    confirm(k);
+                }
+                continue;
+            }
+            states[k] = ACTIVATED;
+            speculative[k] = currentSpeculatively;
+            numberOfUnfinished++;
+            final ChainBlock block = plan.blocks[k];
+            if (block.isReady() || !block.isExecutedAtRunTime()) {
+                finish(k);
+                continue;
+            }
+            final List<ChainInputPort> always = list(necessaryAlways, k);
+            final List<ChainInputPort> sometimes = list(necessarySometimes, k);
+            always.clear();
+            sometimes.clear();
+            boolean hasConditionalInputs = false;
+            for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                final ChainInputPort inputPort = plan.inputSlots[slot];
+                if (ChainBlock.isAlwaysNecessary(inputPort)) {
+                    always.add(inputPort);
+                    tail = waitForSource(k, slot, tail, currentSpeculatively);
+                } else {
+                    sometimes.add(inputPort);
+                    hasConditionalInputs = true;
+                }
+            }
+            waitingForConditionResolving[k] = hasConditionalInputs;
+            if (hasConditionalInputs && speculation && block.isSpeculativeExecution()) {
+                for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                    if (!ChainBlock.isAlwaysNecessary(plan.inputSlots[slot])) {
+                        tail = speculate(slot, tail);
+                    }
+                }
+            }
+            if (numberOfNotReadyInputs[k] == 0) {
+                addReady(k);
+            }
+        }
+    }
+
+    // Must be called under synchronization
+    private int waitForSource(int blockIndex, int slot, int activationTail, boolean speculatively) {
+        final int source = plan.inputSlotSources[slot];
+        if (states[source] != FINISHED) {
+            numberOfNotReadyInputs[blockIndex]++;
+            waitedSlots[slot] = true;
+            if (states[source] == NEW) {
+                activationSpeculative[activationTail] = speculatively;
+                activationQueue[activationTail++] = source;
+                return activationTail;
+            }
+        }
+        if (!speculatively) {
+            confirm(source);
+        }
+        return activationTail;
+    }
+
+    // Must be called under synchronization
+    private int speculate(int slot, int activationTail) {
+        final int source = plan.inputSlotSources[slot];
+        if (states[source] != NEW) {
+            if (speculative[source] && states[source] != FINISHED) {
+                speculatedSlots[slot] = true;
+                numberOfSpeculatingConsumers[source]++;
+                // - it is also interesting for this consumer
+            }
+            return activationTail;
+        }
+        if (numberOfRunning + readyCount >= maxNumberOfHelpers) {
+            return activationTail;
+            // - no free threads
+        }
+        final double time = speculationCost(source);
+        if (time < 0.0 || time > maxSpeculationTime) {
+            return activationTail;
+        }
+        speculatedSlots[slot] = true;
+        numberOfSpeculatingConsumers[source]++;
+        activationSpeculative[activationTail] = true;
+        activationQueue[activationTail++] = source;
+        return activationTail;
+    }
+
+    // Must be called under synchronization
+    private void confirm(int start) {
+        if (!speculative[start]) {
+            return;
+        }
+        int top = 0;
+        confirmationStack[top++] = start;
+        while (top > 0) {
+            final int k = confirmationStack[--top];
+            if (!speculative[k]) {
+                continue;
+            }
+            speculative[k] = false;
+            if (speculativeExceptions[k] != null && exception == null) {
+                exception = speculativeExceptions[k];
+            }
+            for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                final int source = plan.inputSlotSources[slot];
+                if (speculative[source] && isUsed(k, slot)) {
+                    confirmationStack[top++] = source;
+                }
+            }
+        }
+    }
+
+    // Must be called under synchronization.
+    // Returns the estimated summary execution time of the block and of all its sources, which are not activated
+    // yet and which will be activated together with it, or -1.0 if the time of some of them is unknown.
+    private double speculationCost(int start) {
+        if (++traversalStamp == Integer.MAX_VALUE) {
+            Arrays.fill(traversalStamps, 0);
+            traversalStamp = 1;
+        }
+        double result = 0.0;
+        int top = 0;
+        traversalStamps[start] = traversalStamp;
+        traversalStack[top++] = start;
+        while (top > 0) {
+            final int k = traversalStack[--top];
+            final ChainBlock block = plan.blocks[k];
+            if (block.isReady() || !block.isExecutedAtRunTime()) {
+                continue;
+                // - activate() finishes such blocks immediately
+            }
+            final double time = block.estimatedExecutionTime();
+            if (time < 0.0) {
+                return -1.0;
+            }
+            result += time;
+            if (result > maxSpeculationTime) {
+                return result;
+                // - no sense to continue
+            }
+            for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                final int source = plan.inputSlotSources[slot];
+                if (states[source] == NEW && traversalStamps[source] != traversalStamp
+                        && ChainBlock.isAlwaysNecessary(plan.inputSlots[slot])) {
+                    traversalStamps[source] = traversalStamp;
+                    traversalStack[top++] = source;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Must be called under synchronization
+    private void cancel(int consumer, int start) {
+        if (!isCancellable(start)) {
+            return;
+        }
+        for (int i = plan.blockConsumersFrom[start], to = plan.blockConsumersFrom[start + 1]; i < to; i++) {
+            if (plan.inputSlotBlocks[plan.consumerSlots[i]] != consumer) {
+                return;
+                // - it can be necessary for another block
+            }
+        }
+        int top = 0;
+        cancelled[start] = true;
+        traversalStack[top++] = start;
+        while (top > 0) {
+            final int k = traversalStack[--top];
+            final var executor = plan.blocks[k].executor;
+            if (started[k] && executor != null && !plan.chain.isMemoization()) {
+                executor.interrupt();
+                // - with memoization, the interrupted executor could store incorrect results in the cache
+            }
+            for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+                final int source = plan.inputSlotSources[slot];
+                if (isCancellable(source) && allConsumersCancelled(source)) {
+                    cancelled[source] = true;
+                    traversalStack[top++] = source;
+                    // - the speculative source, activated for the cancelled blocks only
+                }
+            }
+        }
+    }
+
+    // Must be called under synchronization
+    private boolean isCancellable(int k) {
+        return speculative[k] && states[k] != FINISHED && !cancelled[k];
+    }
+
+    // Must be called under synchronization
+    private boolean allConsumersCancelled(int k) {
+        for (int i = plan.blockConsumersFrom[k], to = plan.blockConsumersFrom[k + 1]; i < to; i++) {
+            if (!cancelled[plan.inputSlotBlocks[plan.consumerSlots[i]]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Must be called under synchronization
+    private boolean isUsed(int k, int slot) {
+        final ChainInputPort inputPort = plan.inputSlots[slot];
+        if (ChainBlock.isAlwaysNecessary(inputPort)) {
+            return true;
+        }
+        final List<ChainInputPort> necessaryNow = this.necessaryNow[k];
+        return states[k] != NEW && !waitingForConditionResolving[k]
+                && necessaryNow != null && necessaryNow.contains(inputPort);
+        // - necessaryNow[k] is actual only after resolving conditions in this pass
+    }
+
+    // Must be called under synchronization
+    private Throwable speculativeExceptionInSources(int k) {
+        for (int slot = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1]; slot < to; slot++) {
+            final Throwable e = speculativeExceptions[plan.inputSlotSources[slot]];
+            if (e != null && isUsed(k, slot)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    // Must be called under synchronization
+    private void finish(int k) {
+        assert states[k] != FINISHED : "finishing twice: " + plan.blocks[k];
+        states[k] = FINISHED;
+        numberOfUnfinished--;
+        for (int i = plan.blockConsumersFrom[k], to = plan.blockConsumersFrom[k + 1]; i < to; i++) {
+            final int slot = plan.consumerSlots[i];
+            if (waitedSlots[slot]) {
+                waitedSlots[slot] = false;
+                final int consumer = plan.inputSlotBlocks[slot];
+                if (--numberOfNotReadyInputs[consumer] == 0) {
+                    addReady(consumer);
+                }
+            }
+        }
+    }
+
+    // Must be called under synchronization
+    private void addReady(int k) {
+        readyQueue[(readyHead + readyCount++) % readyQueue.length] = k;
+        light[k] = adaptiveForking && isLight(k);
+        if (light[k]) {
+            numberOfReadyLight++;
+        }
+    }
+
+    // Must be called under synchronization
+    private int pollReady() {
+        final int result = readyQueue[readyHead];
+        readyHead = (readyHead + 1) % readyQueue.length;
+        readyCount--;
+        if (light[result]) {
+            numberOfReadyLight--;
+        }
+        return result;
+    }
+
+    // Must be called under synchronization
+    private boolean isLight(int k) {
+        if (waitingForConditionResolving[k]) {
+            return true;
+            // - resolving conditions is usually very quick
+        }
+        final double time = plan.blocks[k].estimatedExecutionTime();
+        return time >= 0.0 && time < LIGHT_BLOCK_FACTOR * forkOverhead;
+    }
+
+    // Must be called under synchronization
+    private void resolveConditions(int k, List<ChainInputPort> necessaryNow) {
+        waitingForConditionResolving[k] = false;
+        final int from = plan.blockInputsFrom[k], to = plan.blockInputsFrom[k + 1];
+        if (!speculative[k]) {
+            for (int slot = from; slot < to; slot++) {
+                if (necessaryNow.contains(plan.inputSlots[slot])) {
+                    confirm(plan.inputSlotSources[slot]);
+                }
+            }
+        }
+        for (int slot = from; slot < to; slot++) {
+            if (speculatedSlots[slot]) {
+                speculatedSlots[slot] = false;
+                final int source = plan.inputSlotSources[slot];
+                if (--numberOfSpeculatingConsumers[source] == 0
+                        && !necessaryNow.contains(plan.inputSlots[slot])) {
+                    cancel(k, source);
+                }
+            }
+        }
+        for (int slot = from; slot < to; slot++) {
+            if (necessaryNow.contains(plan.inputSlots[slot])
+                    && states[plan.inputSlotSources[slot]] != FINISHED) {
+                numberOfNotReadyInputs[k]++;
+                waitedSlots[slot] = true;
+            }
+        }
+        if (numberOfNotReadyInputs[k] == 0) {
+            addReady(k);
+        }
+        for (int slot = from; slot < to; slot++) {
+            if (waitedSlots[slot]) {
+                activate(plan.inputSlotSources[slot], speculative[k]);
+                // - does nothing if the source is already activated (but can confirm it)
+            }
+        }
+    }
+
+    private static List<ChainInputPort> list(List<ChainInputPort>[] lists, int k) {
+        List<ChainInputPort> result = lists[k];
+        if (result == null) {
+            lists[k] = result = new ArrayList<>();
+        }
+        return result;
+    }
+
+    private void runReadyBlocks(boolean mainThread) {
+        for (; ; ) {
+            final int k;
+            final boolean resolving;
+            final boolean skipped;
+            synchronized (lock) {
+                for (; ; ) {
+                    if (exception != null || numberOfUnfinished == 0) {
+                        if (!mainThread) {
+                            numberOfHelpers--;
+                            return;
+                        }
+                        if (numberOfRunning == 0) {
+                            // - we must not return until all blocks, started by other threads, are finished:
+                            // the caller will probably free all data after this method
+                            return;
+                        }
+                    } else if (readyCount > 0) {
+                        break;
+                    } else if (!mainThread) {
+                        numberOfHelpers--;
+                        return;
+                    }
+                    mainThreadWaiting = true;
+                    try {
+                        waitForChanges();
+                    } finally {
+                        mainThreadWaiting = false;
+                    }
+                }
+                k = pollReady();
+                resolving = waitingForConditionResolving[k];
+                numberOfRunning++;
+                started[k] = true;
+                if (speculative[k]) {
+                    final Throwable e = speculativeExceptionInSources(k);
+                    if (e != null) {
+                        speculativeExceptions[k] = e;
+                        cancelled[k] = true;
+                        // - no sense to execute it
+                    }
+                }
+                skipped = cancelled[k];
+            }
+            int helpersToStart = 0;
+            final ChainBlock block = plan.blocks[k];
+            try {
+                if (skipped) {
+                    synchronized (lock) {
+                        finish(k);
+                        helpersToStart = numberOfHelpersToStart();
+                    }
+                } else if (resolving) {
+                    final List<ChainInputPort> necessaryNow = list(this.necessaryNow, k);
+                    block.resolveConditionalInputs(necessaryAlways[k], necessarySometimes[k], necessaryNow);
+                    synchronized (lock) {
+                        resolveConditions(k, necessaryNow);
+                        helpersToStart = numberOfHelpersToStart();
+                    }
+                } else {
+                    final List<ChainInputPort> sometimes = necessarySometimes[k];
+                    final List<ChainInputPort> inputs = sometimes == null || sometimes.isEmpty() ?
+                            necessaryAlways[k] :
+                            necessaryNow[k];
+                    final Semaphore permits = virtual && !isBlocking(block) ? cpuBoundPermits : null;
+                    if (permits != null) {
+                        acquire(permits);
+                        try {
+                            block.executeWithReadyInputs(inputs);
+                        } finally {
+                            permits.release();
+                        }
+                    } else {
+                        block.executeWithReadyInputs(inputs);
+                    }
+                    synchronized (lock) {
+                        finish(k);
+                        helpersToStart = numberOfHelpersToStart();
+                    }
+                }
+            } catch (Throwable e) {
+                synchronized (lock) {
+                    if (speculative[k]) {
+                        speculativeExceptions[k] = e;
+                        finish(k);
+                        helpersToStart = numberOfHelpersToStart();
+                    } else if (exception == null) {
+                        exception = e;
+                    }
+                }
+            } finally {
+                final boolean cancelled;
+                synchronized (lock) {
+                    numberOfRunning--;
+                    cancelled = this.cancelled[k];
+                    lock.notifyAll();
+                }
+                final var executor = block.executor;
+                if (cancelled && !skipped && executor != null) {
+                    executor.setInterruptionRequested(false);
+                    // - the block is already finished, so it cannot be interrupted again
+                }
+            }
+            startHelpers(helpersToStart);
+        }
+    }
+
+    // Must be called under synchronization
+    private int numberOfHelpersToStart() {
+        if (readyCount == 0 || exception != null) {
+            return 0;
+        }
+        if (mainThreadWaiting) {
+            lock.notifyAll();
+        }
+        if (!multithreading) {
+            return 0;
+        }
+        final int expectedConsumers = 1 + (mainThreadWaiting ? 1 : 0) + numberOfStartingHelpers;
+        // - the current thread will also take one of the ready blocks
+        final int demand = readyCount - numberOfReadyLight + (numberOfReadyLight > 0 ? 1 : 0);
+        // - all light blocks together require only one thread
+        final int result = Math.max(0, Math.min(
+                demand - expectedConsumers,
+                maxNumberOfHelpers - numberOfHelpers));
+        numberOfHelpers += result;
+        numberOfStartingHelpers += result;
+        return result;
+    }
+
+    private void startHelpers(int count) {
+        for (int k = 0; k < count; k++) {
+            final long submitted = System.nanoTime();
+            final Runnable helper = () -> {
+                final long delay = System.nanoTime() - submitted;
+                synchronized (lock) {
+                    numberOfStartingHelpers--;
+                    forkOverhead += FORK_OVERHEAD_SMOOTHING * (delay - forkOverhead);
+                }
+                runReadyBlocks(false);
+            };
+            try {
+                if (virtual) {
+                    VirtualThreads.EXECUTOR.execute(helper);
+                } else if (dedicatedPool != null) {
+                    dedicatedPool.execute(helper);
+                } else {
+                    pool.execute(helper);
+                }
+            } catch (RejectedExecutionException e) {
+                final int notStarted = count - k;
+                synchronized (lock) {
+                    numberOfHelpers -= notStarted;
+                    numberOfStartingHelpers -= notStarted;
+                    lock.notifyAll();
+                }
+                return;
+                // - the current thread (and the main thread) will execute the ready blocks itself
+            }
+        }
+    }
+
+    private static boolean isBlocking(ChainBlock block) {
+        final var executor = block.executor;
+        return executor != null && executor.isBlockingExecution();
+    }
+
+    private static void acquire(Semaphore permits) {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean acquired = false;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    if (!acquired) {
+                        permits.acquire();
+                        acquired = true;
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return acquired || (acquired = permits.tryAcquire());
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptionException(e);
+        }
+    }
+
+    // Must be called under synchronization
+    private void waitForChanges() {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean released = false;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    lock.wait();
+                    released = true;
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return released;
+                }
+            });
+            // - if this thread is a worker of some fork-join pool (probably executing a parent chain),
+            // this allows the pool to compensate the blocked thread; in other case, it just calls lock.wait()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptionException(e);
+        }
+    }
+
+    private static class VirtualThreads {
+        static final ExecutorService EXECUTOR = newExecutor();
+
+        private static ExecutorService newExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                // - Java 21+; we use reflection to stay compatible with older JVM
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                return Executors.newCachedThreadPool(task -> {
+                    final Thread thread = new Thread(task, "chain-block-executor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                // - the nearest analogue: an unbounded pool, where blocked threads do not prevent other blocks
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "chain scheduler for " + plan.chain + " (" + plan.numberOfBlocks() + " blocks)";
+    }
+}
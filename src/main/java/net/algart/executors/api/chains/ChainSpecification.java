@@ -68,6 +68,18 @@ public final class ChainSpecification extends AbstractConvertibleToJson {
                 private boolean all = false;
                 private boolean multithreading = true;
                 private boolean ignoreExceptions = false;
+                private Integer poolSize = null;
+                private ChainExecutionMode mode = ChainExecutionMode.FORK_JOIN;
+                private Integer maxCpuBoundBlocks = null;
+                private Integer parallelism = null;
+                private boolean memoization = false;
+                private boolean earlyDataRelease = false;
+                private boolean loopInvariantHoisting = false;
+                private boolean pipelinedLoops = false;
+                private boolean adaptiveForking = false;
+                private boolean tracing = false;
+                private boolean speculative = false;
+                private Double maxSpeculationTime = null;
 
                 public Execution() {
                 }
@@ -76,6 +88,24 @@ public final class ChainSpecification extends AbstractConvertibleToJson {
                     this.all = json.getBoolean("all", false);
                     this.multithreading = json.getBoolean("multithreading", true);
                     this.ignoreExceptions = json.getBoolean("ignore_exceptions", false);
+                    final JsonNumber poolSize = json.getJsonNumber("pool_size");
+                    this.poolSize = poolSize == null ? null : poolSize.intValue();
+                    final String mode = json.getString("executor", ChainExecutionMode.FORK_JOIN.modeName());
+                    this.mode = ChainExecutionMode.ofOrNull(mode);
+                    Jsons.requireNonNull(this.mode, json, "executor", "unknown (\"" + mode + "\")", file);
+                    final JsonNumber maxCpuBoundBlocks = json.getJsonNumber("max_cpu_bound_blocks");
+                    this.maxCpuBoundBlocks = maxCpuBoundBlocks == null ? null : maxCpuBoundBlocks.intValue();
+                    final JsonNumber parallelism = json.getJsonNumber("parallelism");
+                    this.parallelism = parallelism == null ? null : parallelism.intValue();
+                    this.memoization = json.getBoolean("memoization", false);
+                    this.earlyDataRelease = json.getBoolean("early_data_release", false);
+                    this.loopInvariantHoisting = json.getBoolean("loop_invariant_hoisting", false);
+                    this.pipelinedLoops = json.getBoolean("pipelined_loops", false);
+                    this.adaptiveForking = json.getBoolean("adaptive_forking", false);
+                    this.tracing = json.getBoolean("tracing", false);
+                    this.speculative = json.getBoolean("speculative", false);
+                    final JsonNumber maxSpeculationTime = json.getJsonNumber("max_speculation_time");
+                    this.maxSpeculationTime = maxSpeculationTime == null ? null : maxSpeculationTime.doubleValue();
                 }
 
                 public boolean isAll() {
@@ -105,6 +135,147 @@ public final class ChainSpecification extends AbstractConvertibleToJson {
                     return this;
                 }
 
+                /**
+                 * Returns the maximal number of idle copies of this chain, stored in its {@link ChainPool},
+                 * or <code>null</code> if it is not specified (then the default value is used).
+                 *
+                 * @return maximal size of the pool of chain copies or <code>null</code>.
+                 */
+                public Integer getPoolSize() {
+                    return poolSize;
+                }
+
+                public Execution setPoolSize(Integer poolSize) {
+                    if (poolSize != null && poolSize < 0) {
+                        throw new IllegalArgumentException("Negative pool size " + poolSize);
+                    }
+                    this.poolSize = poolSize;
+                    return this;
+                }
+
+                public ChainExecutionMode getMode() {
+                    return mode;
+                }
+
+                public Execution setMode(ChainExecutionMode mode) {
+                    this.mode = Objects.requireNonNull(mode, "Null execution mode");
+                    return this;
+                }
+
+                /**
+                 * Returns the maximal number of simultaneously executed CPU-bound blocks
+                 * in {@link ChainExecutionMode#VIRTUAL} mode,
+                 * or <code>null</code> if it is not specified (then the default value is used).
+                 *
+                 * @return maximal number of CPU-bound blocks, executed in parallel, or <code>null</code>.
+                 */
+                public Integer getMaxCpuBoundBlocks() {
+                    return maxCpuBoundBlocks;
+                }
+
+                public Execution setMaxCpuBoundBlocks(Integer maxCpuBoundBlocks) {
+                    if (maxCpuBoundBlocks != null && maxCpuBoundBlocks <= 0) {
+                        throw new IllegalArgumentException("Zero or negative maximal number of CPU-bound blocks "
+                                + maxCpuBoundBlocks);
+                    }
+                    this.maxCpuBoundBlocks = maxCpuBoundBlocks;
+                    return this;
+                }
+
+                /**
+                 * Returns the parallelism of the dedicated fork-join pool, used for executing this chain
+                 * in {@link ChainExecutionMode#FORK_JOIN} mode, or <code>null</code> if it is not specified
+                 * (then the common pool is used).
+                 *
+                 * @return parallelism of the dedicated pool or <code>null</code>.
+                 */
+                public Integer getParallelism() {
+                    return parallelism;
+                }
+
+                public Execution setParallelism(Integer parallelism) {
+                    if (parallelism != null && parallelism < 0) {
+                        throw new IllegalArgumentException("Negative parallelism " + parallelism);
+                    }
+                    this.parallelism = parallelism;
+                    return this;
+                }
+
+                public boolean isMemoization() {
+                    return memoization;
+                }
+
+                public Execution setMemoization(boolean memoization) {
+                    this.memoization = memoization;
+                    return this;
+                }
+
+                public boolean isEarlyDataRelease() {
+                    return earlyDataRelease;
+                }
+
+                public Execution setEarlyDataRelease(boolean earlyDataRelease) {
+                    this.earlyDataRelease = earlyDataRelease;
+                    return this;
+                }
+
+                public boolean isLoopInvariantHoisting() {
+                    return loopInvariantHoisting;
+                }
+
+                public Execution setLoopInvariantHoisting(boolean loopInvariantHoisting) {
+                    this.loopInvariantHoisting = loopInvariantHoisting;
+                    return this;
+                }
+
+                public boolean isPipelinedLoops() {
+                    return pipelinedLoops;
+                }
+
+                public Execution setPipelinedLoops(boolean pipelinedLoops) {
+                    this.pipelinedLoops = pipelinedLoops;
+                    return this;
+                }
+
+                public boolean isAdaptiveForking() {
+                    return adaptiveForking;
+                }
+
+                public Execution setAdaptiveForking(boolean adaptiveForking) {
+                    this.adaptiveForking = adaptiveForking;
+                    return this;
+                }
+
+                public boolean isTracing() {
+                    return tracing;
+                }
+
+                public Execution setTracing(boolean tracing) {
+                    this.tracing = tracing;
+                    return this;
+                }
+
+                public boolean isSpeculative() {
+                    return speculative;
+                }
+
+                public Execution setSpeculative(boolean speculative) {
+                    this.speculative = speculative;
+                    return this;
+                }
+
+                public Double getMaxSpeculationTime() {
+                    return maxSpeculationTime;
+                }
+
+                public Execution setMaxSpeculationTime(Double maxSpeculationTime) {
+                    if (maxSpeculationTime != null && maxSpeculationTime < 0.0) {
+                        throw new IllegalArgumentException("Negative maximal speculation time " + maxSpeculationTime);
+                    }
+                    this.maxSpeculationTime = maxSpeculationTime;
+                    return this;
+                }
+
                 @Override
                 public void checkCompleteness() {
                 }
@@ -115,6 +286,18 @@ public final class ChainSpecification extends AbstractConvertibleToJson {
                             "all=" + all +
                             ", multithreading=" + multithreading +
                             ", ignoreExceptions=" + ignoreExceptions +
+                            ", poolSize=" + poolSize +
+                            ", mode=" + mode +
+                            ", maxCpuBoundBlocks=" + maxCpuBoundBlocks +
+                            ", parallelism=" + parallelism +
+                            ", memoization=" + memoization +
+                            ", earlyDataRelease=" + earlyDataRelease +
+                            ", loopInvariantHoisting=" + loopInvariantHoisting +
+                            ", pipelinedLoops=" + pipelinedLoops +
+                            ", adaptiveForking=" + adaptiveForking +
+                            ", tracing=" + tracing +
+                            ", speculative=" + speculative +
+                            ", maxSpeculationTime=" + maxSpeculationTime +
                             '}';
                 }
 
@@ -123,6 +306,40 @@ public final class ChainSpecification extends AbstractConvertibleToJson {
                     builder.add("all", all);
                     builder.add("multithreading", multithreading);
                     builder.add("ignore_exceptions", ignoreExceptions);
+                    if (poolSize != null) {
+                        builder.add("pool_size", poolSize);
+                    }
+                    builder.add("executor", mode.modeName());
+                    if (maxCpuBoundBlocks != null) {
+                        builder.add("max_cpu_bound_blocks", maxCpuBoundBlocks);
+                    }
+                    if (parallelism != null) {
+                        builder.add("parallelism", parallelism);
+                    }
+                    if (memoization) {
+                        builder.add("memoization", true);
+                    }
+                    if (earlyDataRelease) {
+                        builder.add("early_data_release", true);
+                    }
+                    if (loopInvariantHoisting) {
+                        builder.add("loop_invariant_hoisting", true);
+                    }
+                    if (pipelinedLoops) {
+                        builder.add("pipelined_loops", true);
+                    }
+                    if (adaptiveForking) {
+                        builder.add("adaptive_forking", true);
+                    }
+                    if (tracing) {
+                        builder.add("tracing", true);
+                    }
+                    if (speculative) {
+                        builder.add("speculative", true);
+                    }
+                    if (maxSpeculationTime != null) {
+                        builder.add("max_speculation_time", maxSpeculationTime);
+                    }
                 }
             }
 
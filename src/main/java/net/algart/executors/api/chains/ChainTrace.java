@@ -0,0 +1,324 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.api.chains;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import net.algart.json.Jsons;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Trace of one execution of a chain with enabled {@link Chain#setTracing(boolean) tracing}:
+ * start and end times of every executed block, the time of passing data to it and the thread,
+ * which executed it.
+ *
+ * <p>The trace can be exported in Chrome Trace Event format (see {@link #toChromeTraceJson()}),
+ * which can be viewed by <code>chrome://tracing</code>, Perfetto and similar tools,
+ * and allows finding the <i>critical path</i>: the sequence of dependent blocks, which
+ * bound the end-to-end latency of the chain (see {@link #criticalPath()}).
+ *
+ * <p>All times are measured by <code>System.nanoTime()</code>.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class ChainTrace {
+    /**
+     * Execution of one block.
+     *
+     * @param block              the executed block.
+     * @param startTime          the time when the block started to receive its input data.
+     * @param executionStartTime the time when the block started execution
+     *                           (equal to <code>startTime</code>, if the block did not receive any data).
+     * @param endTime            the time when the execution was finished.
+     * @param threadId           ID of the thread, which executed the block.
+     * @param threadName         name of this thread.
+     * @param failed             whether the execution was finished by an exception.
+     */
+    public record Event(
+            ChainBlock block,
+            long startTime,
+            long executionStartTime,
+            long endTime,
+            long threadId,
+            String threadName,
+            boolean failed) {
+        public long passingDataTime() {
+            return executionStartTime - startTime;
+        }
+
+        public long executionTime() {
+            return endTime - executionStartTime;
+        }
+
+        public long duration() {
+            return endTime - startTime;
+        }
+    }
+
+    private final Chain chain;
+    private final long startTime;
+    private volatile long endTime = -1;
+    private final List<Event> events = new ArrayList<>();
+
+    private final Object lock = new Object();
+
+    ChainTrace(Chain chain) {
+        this.chain = Objects.requireNonNull(chain, "Null chain");
+        this.startTime = System.nanoTime();
+    }
+
+    public Chain chain() {
+        return chain;
+    }
+
+    public long startTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the time when the chain execution was finished, or &minus;1 if it is not finished yet.
+     *
+     * @return the end time.
+     */
+    public long endTime() {
+        return endTime;
+    }
+
+    public long latency() {
+        final long endTime = this.endTime;
+        return (endTime == -1 ? System.nanoTime() : endTime) - startTime;
+    }
+
+    /**
+     * Returns all events of this trace, sorted by their start time.
+     *
+     * @return all recorded events.
+     */
+    public List<Event> events() {
+        final List<Event> result;
+        synchronized (lock) {
+            result = new ArrayList<>(events);
+        }
+        result.sort(Comparator.comparingLong(Event::startTime));
+        return result;
+    }
+
+    /**
+     * Returns the critical path: the sequence of events, where the last event is the event finished last,
+     * and the previous event for every event is the event, which was finished last before starting this one
+     * among the executions of its source blocks (connected to its input ports) and the previous event
+     * in the same thread. In other words, every event waited either for its input data, or for the thread,
+     * which was busy by the previous event. So, the end-to-end latency of the chain cannot be reduced
+     * without reducing the duration of these events or the delays between them.
+     *
+     * @return the critical path (empty if no blocks were executed).
+     */
+    public List<Event> criticalPath() {
+        final List<Event> events = events();
+        final Map<ChainBlock, List<Event>> eventsOfBlock = new HashMap<>();
+        final Map<Long, List<Event>> eventsOfThread = new HashMap<>();
+        Event last = null;
+        for (Event event : events) {
+            eventsOfBlock.computeIfAbsent(event.block, k -> new ArrayList<>()).add(event);
+            eventsOfThread.computeIfAbsent(event.threadId, k -> new ArrayList<>()).add(event);
+            if (last == null || event.endTime > last.endTime) {
+                last = event;
+            }
+        }
+        final LinkedList<Event> result = new LinkedList<>();
+        for (Event current = last; current != null; ) {
+            result.addFirst(current);
+            Event previous = null;
+            for (ChainInputPort inputPort : current.block.inputPorts.values()) {
+                if (!inputPort.isConnected()) {
+                    continue;
+                }
+                final List<Event> sourceEvents = eventsOfBlock.get(inputPort.connectedSourceBlock());
+                if (sourceEvents == null) {
+                    continue;
+                }
+                previous = latestBefore(sourceEvents, current, previous);
+            }
+            previous = latestBefore(eventsOfThread.get(current.threadId), current, previous);
+            current = previous;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a human-readable summary of the {@link #criticalPath() critical path}.
+     *
+     * @return text description of the critical path.
+     */
+    public String criticalPathInfo() {
+        final List<Event> path = criticalPath();
+        final long latency = latency();
+        final long pathTime = path.stream().mapToLong(Event::duration).sum();
+        final StringBuilder sb = new StringBuilder(String.format(Locale.US,
+                "  Critical path of chain%s (id=%s): %d blocks, %.3f ms of %.3f ms latency (%.1f%%)%n",
+                chain.name() == null ? "" : " " + chain.name(), chain.id(), path.size(),
+                pathTime * 1e-6, latency * 1e-6, latency == 0 ? 0.0 : pathTime * 100.0 / latency));
+        Event previous = null;
+        for (Event event : path) {
+            final String waitedFor = previous == null ? "chain start"
+                    : isSource(previous.block, event.block) ? "input data" : "free thread";
+            sb.append(String.format(Locale.US,
+                    "    %.3f ms (%.1f%%): %.3f ms passing data, %.3f ms execution, "
+                            + "waited %.3f ms after %s in thread \"%s\"%s - block ID '%s', %s%n",
+                    event.duration() * 1e-6,
+                    latency == 0 ? 0.0 : event.duration() * 100.0 / latency,
+                    event.passingDataTime() * 1e-6,
+                    event.executionTime() * 1e-6,
+                    (event.startTime - (previous == null ? startTime : previous.endTime)) * 1e-6,
+                    waitedFor,
+                    event.threadName,
+                    event.failed ? " [FAILED]" : "",
+                    event.block.getId(),
+                    event.block.friendlyCaption()));
+            previous = event;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns this trace in Chrome Trace Event format. Every block execution is represented by
+     * a complete event (phase "X") with a nested "passing data" event, if the block received some data;
+     * the events of the {@link #criticalPath() critical path} have the category "critical".
+     *
+     * @return JSON with "traceEvents" array.
+     */
+    public JsonObject toChromeTraceJson() {
+        final Set<Event> critical = Collections.newSetFromMap(new IdentityHashMap<>());
+        critical.addAll(criticalPath());
+        final JsonArrayBuilder traceEvents = Json.createArrayBuilder();
+        traceEvents.add(Json.createObjectBuilder()
+                .add("name", "process_name")
+                .add("ph", "M")
+                .add("pid", 1)
+                .add("args", Json.createObjectBuilder()
+                        .add("name", "chain " + (chain.name() == null ? chain.id() : chain.name()))));
+        final Map<Long, String> threads = new LinkedHashMap<>();
+        for (Event event : events()) {
+            threads.putIfAbsent(event.threadId, event.threadName);
+            final boolean isCritical = critical.contains(event);
+            final JsonObjectBuilder args = Json.createObjectBuilder()
+                    .add("block_id", event.block.getId())
+                    .add("executor_id", event.block.getExecutorId())
+                    .add("passing_data_us", event.passingDataTime() * 1e-3);
+            if (isCritical) {
+                args.add("critical", true);
+            }
+            if (event.failed) {
+                args.add("failed", true);
+            }
+            traceEvents.add(Json.createObjectBuilder()
+                    .add("name", event.block.friendlyCaption())
+                    .add("cat", isCritical ? "block,critical" : "block")
+                    .add("ph", "X")
+                    .add("ts", microseconds(event.startTime))
+                    .add("dur", event.duration() * 1e-3)
+                    .add("pid", 1)
+                    .add("tid", event.threadId)
+                    .add("args", args));
+            if (event.passingDataTime() > 0) {
+                traceEvents.add(Json.createObjectBuilder()
+                        .add("name", "passing data")
+                        .add("cat", "passing")
+                        .add("ph", "X")
+                        .add("ts", microseconds(event.startTime))
+                        .add("dur", event.passingDataTime() * 1e-3)
+                        .add("pid", 1)
+                        .add("tid", event.threadId));
+            }
+        }
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            traceEvents.add(Json.createObjectBuilder()
+                    .add("name", "thread_name")
+                    .add("ph", "M")
+                    .add("pid", 1)
+                    .add("tid", thread.getKey())
+                    .add("args", Json.createObjectBuilder().add("name", thread.getValue())));
+        }
+        return Json.createObjectBuilder()
+                .add("traceEvents", traceEvents)
+                .add("displayTimeUnit", "ms")
+                .build();
+    }
+
+    public void writeChromeTrace(Path file) throws IOException {
+        Objects.requireNonNull(file, "Null file");
+        Files.writeString(file, Jsons.toPrettyString(toChromeTraceJson()));
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return "trace of " + chain + ": " + events.size() + " events"
+                    + (endTime == -1 ? ", not finished" : String.format(Locale.US, ", %.3f ms", latency() * 1e-6));
+        }
+    }
+
+    void add(ChainBlock block, long startTime, long executionStartTime, long endTime, boolean failed) {
+        final Thread thread = Thread.currentThread();
+        final Event event = new Event(
+                block, startTime, executionStartTime, endTime, thread.getId(), thread.getName(), failed);
+        synchronized (lock) {
+            events.add(event);
+        }
+    }
+
+    void finish() {
+        endTime = System.nanoTime();
+    }
+
+    private static Event latestBefore(List<Event> events, Event current, Event result) {
+        for (Event e : events) {
+            if (e != current && e.endTime <= current.startTime && (result == null || e.endTime > result.endTime)) {
+                result = e;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isSource(ChainBlock source, ChainBlock block) {
+        for (ChainInputPort inputPort : block.inputPorts.values()) {
+            if (inputPort.isConnected() && inputPort.connectedSourceBlock() == source) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double microseconds(long time) {
+        return (time - startTime) * 1e-3;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.api.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * Matrix data, mapped directly from some file by <code>FileChannel.map</code> method.
+ * The pages of the file are loaded by OS lazily, only when the corresponding matrix elements are really accessed.
+ *
+ * <p>Note: this class does not access the file system itself; the mapped buffer must be created
+ * by the caller (usually some I/O executor). The buffer is mapped in
+ * {@link FileChannel.MapMode#READ_ONLY READ_ONLY} or {@link FileChannel.MapMode#PRIVATE PRIVATE} mode:
+ * the second mode allows to modify the matrix in memory (copy-on-write) without changing the file.
+ */
+public class ConvertibleMappedMatrix extends SMat.Convertible {
+    /**
+     * The format of this byte buffer is compatible with opencv matrix bytes array.
+     * BGR/BGRA order is supposed for color matrices.
+     */
+    final ByteBuffer byteBuffer;
+    private final FileChannel.MapMode mapMode;
+    private final Object source;
+
+    /**
+     * Creates new instance.
+     *
+     * @param mappedBuffer mapped region of the file; it is used with the native byte order.
+     * @param mapMode      the mode, in which this buffer was mapped (used for diagnostic messages).
+     * @param source       the source file or any other object, describing the mapped data
+     *                     (used for diagnostic messages only); may be <code>null</code>.
+     */
+    public ConvertibleMappedMatrix(MappedByteBuffer mappedBuffer, FileChannel.MapMode mapMode, Object source) {
+        Objects.requireNonNull(mappedBuffer, "Null mappedBuffer");
+        this.mapMode = Objects.requireNonNull(mapMode, "Null mapMode");
+        this.byteBuffer = mappedBuffer.duplicate().order(ByteOrder.nativeOrder());
+        this.source = source;
+    }
+
+    public FileChannel.MapMode mapMode() {
+        return mapMode;
+    }
+
+    public Object source() {
+        return source;
+    }
+
+    @Override
+    public SMat.Convertible copy() {
+        return this;
+    }
+
+    @Override
+    public SMat.Convertible copyToMemoryAndDisposePrevious() {
+        return this;
+        // - mapped data are located in usual OS memory (page cache) and safe for any form of usage
+    }
+
+    @Override
+    public ByteBuffer toByteBuffer(SMat thisMatrix) {
+        return byteBuffer;
+    }
+
+    @Override
+    public void dispose() {
+        // - mapping is released by the garbage collector, when the buffer becomes unreachable
+    }
+
+    @Override
+    public String toString() {
+        return "mapped (" + mapMode + ") " + byteBuffer.capacity() + " bytes"
+                + (source == null ? "" : " of " + source);
+    }
+
+    @Override
+    ByteBuffer getCachedByteBuffer(SMat thisMatrix) {
+        return byteBuffer;
+    }
+}
@@ -734,6 +734,9 @@ public final class SMat extends Data {
         final ByteBuffer result = directByteBuffer ?
                 ByteBuffer.allocateDirect(byteBuffer.capacity()) :
                 ByteBuffer.allocate(byteBuffer.capacity());
+        // - not pooled: the buffer is returned to the callers and can be shared with other matrices
+        // (setToInterleavedMatrix, exchange) or be accessed via views (MultiMatrix), which may outlive
+        // this matrix, so, there is no moment when it could be safely reused
         result.order(byteOrder);
         byteBuffer.rewind();
         result.put(byteBuffer);
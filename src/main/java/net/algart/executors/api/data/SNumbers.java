@@ -39,6 +39,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -53,6 +54,10 @@ public final class SNumbers extends Data implements Cloneable {
     public static List<Class<?>> SUPPORTED_ELEMENT_TYPES = List.of(
             byte.class, short.class, int.class, long.class, float.class, double.class);
 
+    private static final boolean COPY_ON_WRITE = Arrays.SystemSettings.getBooleanProperty(
+            "net.algart.executors.api.numbersCopyOnWrite", true);
+    // - if true, setTo(SNumbers) and clone() do not copy the data until one of the objects is modified
+
     public enum FormattingType {
         SIMPLE(Formatter::createSimpleElementFormatter),
         PRINTF(Formatter::createPrintfElementFormatter),
@@ -323,7 +328,7 @@ public final class SNumbers extends Data implements Cloneable {
             } else if (isDoubleArray()) {
                 return new SimpleDoublesElementFormatter(estimatedCapacity);
             } else {
-                throw new AssertionError("Unsupported Java array type: " + array);
+                throw unsupportedJavaArray();
             }
         }
 
@@ -341,7 +346,7 @@ public final class SNumbers extends Data implements Cloneable {
             } else if (isDoubleArray()) {
                 return new PrintfDoublesElementFormatter(this, estimatedCapacity);
             } else {
-                throw new AssertionError("Unsupported Java array type: " + array);
+                throw unsupportedJavaArray();
             }
         }
 
@@ -359,7 +364,7 @@ public final class SNumbers extends Data implements Cloneable {
             } else if (isDoubleArray()) {
                 return new DecimalDoublesElementFormatter(this, estimatedCapacity);
             } else {
-                throw new AssertionError("Unsupported Java array type: " + array);
+                throw unsupportedJavaArray();
             }
         }
     }
@@ -474,13 +479,22 @@ public final class SNumbers extends Data implements Cloneable {
     // The sense on blockLength may be any, but usually it is the size of some
     // little logical unit like point, rectangle, triangle, pair of related value etc.
 
+    private PNumberArray largeArray = null;
+    // - Used instead of the Java array for large numbers arrays (see setToLarge); array is null in this case.
+    // The length of this array is also always divided by blockLength.
+
+    private AtomicInteger sharingCounter = null;
+    // - Not null if array/largeArray is shared with other SNumbers (copy-on-write after setTo/clone):
+    // it is the number of objects, sharing the same data. Every object must call beforeModification()
+    // before changing the elements; the last object, that still uses the data, modifies it without cloning.
+
     @UsedForExternalCommunication
     public SNumbers() {
     }
 
     @UsedForExternalCommunication
     public Object getArray() {
-        return cloneJavaArray(array);
+        return largeArray != null ? largeArray.toJavaArray() : cloneJavaArray(array);
     }
 
     /**
@@ -494,17 +508,31 @@ public final class SNumbers extends Data implements Cloneable {
      * <p>Please use this function carefully, only if you need maximal performance. Usually it is better idea
      * to use one of methods {@link #toIntArray()}, {@link #toFloatArray()} and analogous.</p>
      *
+     * <p>The returned array may be modified by the caller. So, if the data are shared with other objects
+     * (copy-on-write after {@link #setTo(SNumbers)} or {@link #clone()}), this method clones them before
+     * returning the reference.</p>
+     *
      * @return the reference to stored Java array.
+     * @throws IllegalStateException if this object is {@link #isLarge() large}.
      */
     public Object arrayReference() {
+        checkNotLarge();
+        beforeModification();
         return array;
     }
 
+    /**
+     * Returns a reference to the internal Java array, if it is <code>int[]</code>, or its copy in another case.
+     * The result must not be modified: it can be shared with other objects.
+     *
+     * @return the numbers as <code>int[]</code>.
+     */
     public int[] toIntArrayOrReference() {
         return isIntArray() ? (int[]) array : toIntArray();
     }
 
     public int getArrayLength() {
+        checkNotLarge();
         return array == null ? 0 : Array.getLength(array);
     }
 
@@ -537,19 +565,78 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             throw new IllegalStateException("Cannot get element type: numbers array is not initialized");
         }
-        return array.getClass().getComponentType();
+        return largeArray != null ? largeArray.elementType() : array.getClass().getComponentType();
     }
 
     public int n() {
+        checkNotLarge();
         return array == null ? 0 : Array.getLength(array) / blockLength;
     }
 
     public boolean isEmpty() {
-        return getArrayLength() == 0;
+        return longArrayLength() == 0;
     }
 
     public boolean isUnsigned() {
-        return isByteArray() || isShortArray();
+        return largeArray != null ?
+                largeArray instanceof ByteArray || largeArray instanceof ShortArray :
+                isByteArray() || isShortArray();
+    }
+
+    /**
+     * Returns <code>true</code> if the numbers are stored not in a Java array, but in a large AlgART array
+     * outside the Java heap (see {@link #setToLarge(PNumberArray, int)}).
+     *
+     * <p>Large numbers arrays can contain more than 2<sup>31</sup>&minus;1 elements. They support
+     * the methods with <code>long</code> indexing like {@link #longN()}, {@link #getValueAt(long)},
+     * and also {@link #asNumberArray()}, {@link #toByteBuffer(ByteOrder)} and methods like
+     * {@link #toFloatArray()}, which copy data into a new Java array (if it is not too large).
+     * Other methods, based on <code>int</code> indexing or requiring the Java array,
+     * like {@link #n()}, {@link #getValue(int)} or {@link #arrayReference()},
+     * throw <code>IllegalStateException</code> for large arrays.
+     *
+     * @return whether the numbers are stored in a large array.
+     */
+    public boolean isLarge() {
+        return largeArray != null;
+    }
+
+    public long longArrayLength() {
+        return largeArray != null ? largeArray.length() : array == null ? 0 : Array.getLength(array);
+    }
+
+    public long longN() {
+        return longArrayLength() / blockLength;
+    }
+
+    public double getValueAt(long indexInArray) {
+        if (largeArray != null) {
+            return largeArray.getDouble(indexInArray);
+        }
+        return getValue(smallIndex(indexInArray));
+    }
+
+    public void setValueAt(long indexInArray, double value) {
+        if (largeArray != null) {
+            updatableLargeArray().setDouble(indexInArray, value);
+        } else {
+            setValue(smallIndex(indexInArray), value);
+        }
+    }
+
+    public long getLongValueAt(long indexInArray) {
+        if (largeArray != null) {
+            return largeLongValue(indexInArray);
+        }
+        return getLongValue(smallIndex(indexInArray));
+    }
+
+    public void setLongValueAt(long indexInArray, long value) {
+        if (largeArray != null) {
+            updatableLargeArray().setLong(indexInArray, value);
+        } else {
+            setLongValue(smallIndex(indexInArray), value);
+        }
     }
 
     public double getValue(int blockIndex, int indexInBlock) {
@@ -568,12 +655,13 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             return ((double[]) array)[indexInArray];
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
     public void setValue(int blockIndex, int indexInBlock, double value) {
         checkGetSetIndex(blockIndex, indexInBlock, 1);
+        beforeModification();
         int indexInArray = blockIndex * blockLength + indexInBlock;
         if (isByteArray()) {
             ((byte[]) array)[indexInArray] = (byte) value;
@@ -588,7 +676,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             ((double[]) array)[indexInArray] = value;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -609,7 +697,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             return ((double[]) array)[indexInArray];
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -617,6 +705,7 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             throw new IllegalStateException("Numbers array is not initialized");
         }
+        beforeModification();
         if (isByteArray()) {
             ((byte[]) array)[indexInArray] = (byte) value;
         } else if (isShortArray()) {
@@ -630,7 +719,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             ((double[]) array)[indexInArray] = value;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -650,12 +739,13 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             return (long) ((double[]) array)[indexInArray];
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
     public void setLongValue(int blockIndex, int indexInBlock, long value) {
         checkGetSetIndex(blockIndex, indexInBlock, 1);
+        beforeModification();
         int indexInArray = blockIndex * blockLength + indexInBlock;
         if (isByteArray()) {
             ((byte[]) array)[indexInArray] = (byte) value;
@@ -670,7 +760,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             ((double[]) array)[indexInArray] = value;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -691,7 +781,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             return (long) ((double[]) array)[indexInArray];
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -699,6 +789,7 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             throw new IllegalStateException("Numbers array is not initialized");
         }
+        beforeModification();
         if (isByteArray()) {
             ((byte[]) array)[indexInArray] = (byte) value;
         } else if (isShortArray()) {
@@ -712,7 +803,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             ((double[]) array)[indexInArray] = value;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -720,6 +811,7 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             throw new IllegalStateException("Numbers array is not initialized");
         }
+        beforeModification();
         if (isByteArray()) {
             java.util.Arrays.fill((byte[]) array, (byte) value);
         } else if (isShortArray()) {
@@ -733,7 +825,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             java.util.Arrays.fill((double[]) array, value);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
         return this;
     }
@@ -742,6 +834,7 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             throw new IllegalStateException("Numbers array is not initialized");
         }
+        beforeModification();
         if (isByteArray()) {
             java.util.Arrays.fill((byte[]) array, (byte) value);
         } else if (isShortArray()) {
@@ -755,7 +848,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             java.util.Arrays.fill((double[]) array, value);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
         return this;
     }
@@ -806,6 +899,7 @@ public final class SNumbers extends Data implements Cloneable {
 
     public void setValues(int indexInArray, int length, Object valuesJavaArray) {
         Objects.requireNonNull(valuesJavaArray, "Null values array");
+        beforeModification();
         System.arraycopy(valuesJavaArray, 0, this.array, indexInArray, length);
     }
 
@@ -844,13 +938,14 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             System.arraycopy(this.array, indexInArray, result, 0, length);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
         return result;
     }
 
     public void setDoubleValues(int indexInArray, int length, double[] values) {
         Objects.requireNonNull(values, "Null values array");
+        beforeModification();
         if (isByteArray()) {
             final byte[] array = (byte[]) this.array;
             for (int k = 0; k < length; k++) {
@@ -879,7 +974,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             System.arraycopy(values, 0, this.array, indexInArray, length);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -897,6 +992,9 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             return null;
         }
+        if (largeArray != null) {
+            return largeToSmall().toByteArray();
+        }
         if (isByteArray()) {
             return ((byte[]) array).clone();
         } else if (isShortArray()) {
@@ -935,7 +1033,7 @@ public final class SNumbers extends Data implements Cloneable {
             }
             return result;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -953,6 +1051,9 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             return null;
         }
+        if (largeArray != null) {
+            return largeToSmall().toShortArray();
+        }
         if (isShortArray()) {
             return ((short[]) array).clone();
         } else if (isByteArray()) {
@@ -991,7 +1092,7 @@ public final class SNumbers extends Data implements Cloneable {
             }
             return result;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -1009,6 +1110,9 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             return null;
         }
+        if (largeArray != null) {
+            return largeToSmall().toIntArray();
+        }
         if (isIntArray()) {
             return ((int[]) array).clone();
         } else if (isByteArray()) {
@@ -1048,7 +1152,7 @@ public final class SNumbers extends Data implements Cloneable {
             }
             return result;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -1066,6 +1170,9 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             return null;
         }
+        if (largeArray != null) {
+            return largeToSmall().toLongArray();
+        }
         if (isLongArray()) {
             return ((long[]) array).clone();
         } else if (isByteArray()) {
@@ -1104,7 +1211,7 @@ public final class SNumbers extends Data implements Cloneable {
             }
             return result;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -1117,6 +1224,9 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             return null;
         }
+        if (largeArray != null) {
+            return largeToSmall().toFloatArray();
+        }
         if (isFloatArray()) {
             return ((float[]) array).clone();
         } else if (isByteArray()) {
@@ -1155,7 +1265,7 @@ public final class SNumbers extends Data implements Cloneable {
             }
             return result;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -1173,6 +1283,9 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             return null;
         }
+        if (largeArray != null) {
+            return largeToSmall().toDoubleArray();
+        }
         if (isDoubleArray()) {
             return ((double[]) array).clone();
         } else if (isByteArray()) {
@@ -1211,15 +1324,32 @@ public final class SNumbers extends Data implements Cloneable {
             }
             return result;
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
+    /**
+     * Returns a view of the numbers as AlgART array. Usually it is updatable: changes in the result
+     * will be reflected in this object. But if the data are shared with other objects
+     * (copy-on-write after {@link #setTo(SNumbers)} or {@link #clone()}), the result is
+     * an immutable view; you may call {@link #arrayReference()} to get a private modifiable copy.
+     *
+     * @return the numbers as AlgART array or <code>null</code> if this object is not initialized.
+     */
     public PNumberArray asNumberArray() {
         if (!isInitialized()) {
             return null;
         }
-        if (isByteArray()) {
+        if (isShared()) {
+            return (PNumberArray) asUpdatableNumberArray().asImmutable();
+        }
+        return asUpdatableNumberArray();
+    }
+
+    private PNumberArray asUpdatableNumberArray() {
+        if (largeArray != null) {
+            return largeArray;
+        } else if (isByteArray()) {
             return SimpleMemoryModel.asUpdatableByteArray((byte[]) array);
         } else if (isShortArray()) {
             return SimpleMemoryModel.asUpdatableShortArray((short[]) array);
@@ -1232,15 +1362,41 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             return SimpleMemoryModel.asUpdatableDoubleArray((double[]) array);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
+    /**
+     * Returns the numbers as a direct byte buffer with the given byte order.
+     *
+     * <p>Usually this method copies the data into a new buffer. But if this object is {@link #isLarge() large}
+     * and is stored in a direct byte buffer with the same byte order
+     * (it is so for large arrays with less than 2<sup>31</sup> bytes, created by this class),
+     * the result is a view of the stored data without copying: changes in the result will be reflected
+     * in this object. (If the data are shared with other objects, copy-on-write, this view is read-only.)
+     *
+     * @param order the byte order of the result.
+     * @return the numbers as a byte buffer or <code>null</code> if this object is not initialized.
+     */
     public ByteBuffer toByteBuffer(ByteOrder order) {
         if (!isInitialized()) {
             return null;
         }
-        if (isByteArray()) {
+        if (largeArray != null) {
+            if (BufferMemoryModel.isBufferArray(largeArray)) {
+                final ByteBuffer buffer = BufferMemoryModel.getByteBuffer(largeArray);
+                if (buffer.order() == order) {
+                    final int bytesPerElement = Arrays.bytesPerElement(largeArray.elementType());
+                    final int offset = (int) (BufferMemoryModel.getBufferOffset(largeArray) * bytesPerElement);
+                    final ByteBuffer result = (isShared() ? buffer.asReadOnlyBuffer() : buffer.duplicate())
+                            .position(offset)
+                            .limit(offset + (int) (largeArray.length() * bytesPerElement))
+                            .slice();
+                    return result.order(order);
+                }
+            }
+            return largeToSmall().toByteBuffer(order);
+        } else if (isByteArray()) {
             return bytesToByteBuffer((byte[]) array, order);
         } else if (isShortArray()) {
             return shortsToByteBuffer((short[]) array, order);
@@ -1253,7 +1409,7 @@ public final class SNumbers extends Data implements Cloneable {
         } else if (isDoubleArray()) {
             return doublesToByteBuffer((double[]) array, order);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -1966,7 +2122,7 @@ public final class SNumbers extends Data implements Cloneable {
             return;
         }
         //[[Repeat.AutoGeneratedEnd]]
-        throw new AssertionError("Unsupported Java array type: " + array);
+        throw unsupportedJavaArray();
     }
 
     public SNumbers blockRange(int startBlockIndex, int numberOfBlocks) {
@@ -2179,7 +2335,7 @@ public final class SNumbers extends Data implements Cloneable {
                     minFiniteDoublesParallel(blockIndex, numberOfBlocks, indexInBlock, lengthInBlock) :
                     minDoublesParallel(blockIndex, numberOfBlocks, indexInBlock, lengthInBlock);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -2232,7 +2388,7 @@ public final class SNumbers extends Data implements Cloneable {
                     maxFiniteDoublesParallel(blockIndex, numberOfBlocks, indexInBlock, lengthInBlock) :
                     maxDoublesParallel(blockIndex, numberOfBlocks, indexInBlock, lengthInBlock);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -2283,7 +2439,7 @@ public final class SNumbers extends Data implements Cloneable {
                     maxAbsFiniteDoublesParallel(blockIndex, numberOfBlocks, indexInBlock, lengthInBlock) :
                     maxAbsDoublesParallel(blockIndex, numberOfBlocks, indexInBlock, lengthInBlock);
         } else {
-            throw new AssertionError("Unsupported Java array type: " + array);
+            throw unsupportedJavaArray();
         }
     }
 
@@ -2314,12 +2470,18 @@ public final class SNumbers extends Data implements Cloneable {
         Objects.requireNonNull(other, "Null other numbers");
         final long tempFlags = this.flags;
         final Object tempArray = this.array;
+        final PNumberArray tempLargeArray = this.largeArray;
+        final AtomicInteger tempSharingCounter = this.sharingCounter;
         final int tempBlockLength = this.blockLength;
         this.flags = other.flags;
         this.array = other.array;
+        this.largeArray = other.largeArray;
+        this.sharingCounter = other.sharingCounter;
         this.blockLength = other.blockLength;
         other.flags = tempFlags;
         other.array = tempArray;
+        other.largeArray = tempLargeArray;
+        other.sharingCounter = tempSharingCounter;
         other.blockLength = tempBlockLength;
         return this;
     }
@@ -2346,12 +2508,13 @@ public final class SNumbers extends Data implements Cloneable {
             throw new IndexOutOfBoundsException("Index of the block = " + blockIndex
                     + " is out of range 0..n()-1 = 0.." + (dataNumbers.n() - 1));
         }
-        this.blockLength = dataNumbers.blockLength;
-        this.array = Array.newInstance(dataNumbers.elementType(), dataNumbers.blockLength);
+        final Object newArray = Array.newInstance(dataNumbers.elementType(), dataNumbers.blockLength);
         System.arraycopy(
                 dataNumbers.array, blockIndex * dataNumbers.blockLength,
-                this.array, 0,
+                newArray, 0,
                 dataNumbers.blockLength);
+        setArray(newArray);
+        this.blockLength = dataNumbers.blockLength;
         setInitializedAndResetFlags(true);
         return this;
     }
@@ -2400,6 +2563,7 @@ public final class SNumbers extends Data implements Cloneable {
             throw new IllegalArgumentException("Element type mismatch: cannot assign "
                     + otherNumbers.elementType() + "[] to " + elementType + "[]");
         }
+        beforeModification();
         if (blockLength != otherNumbers.blockLength) {
             throw new IllegalArgumentException("Block lengths mismatch: this array contains "
                     + blockLength + " columns, but the other contains " + otherNumbers.blockLength + " columns");
@@ -2478,6 +2642,71 @@ public final class SNumbers extends Data implements Cloneable {
         return setToArray(array.toJavaArray(), blockLength, false);
     }
 
+    /**
+     * Makes this object {@link #isLarge() large}, storing the reference to the passed AlgART array
+     * without copying. Usually the passed array should be created by a memory model, storing data
+     * outside the Java heap, like {@link LargeMemoryModel} or {@link BufferMemoryModel}:
+     * see {@link #setToLargeZeros(Class, long, int)}.
+     *
+     * <p>If the passed array is not {@link UpdatablePNumberArray updatable}, methods modifying elements
+     * like {@link #setValueAt(long, double)} will throw <code>IllegalStateException</code>.
+     *
+     * @param array       the array of numbers.
+     * @param blockLength the block length; the array length must be divisible by it.
+     * @return a reference to this object.
+     */
+    public SNumbers setToLarge(PNumberArray array, int blockLength) {
+        Objects.requireNonNull(array, "Null array");
+        if (!isSupportedJavaElementType(array.elementType())) {
+            throw new IllegalArgumentException("The element type of passed array is not supported (it is "
+                    + array + ")");
+        }
+        if (blockLength <= 0) {
+            throw new IllegalArgumentException("Block length " + blockLength + " is not positive");
+        }
+        if (array.length() % blockLength != 0) {
+            throw new IllegalArgumentException("Array length " + array.length()
+                    + " is not divisible by block length " + blockLength);
+        }
+        setInitializedAndResetFlags(true);
+        releaseSharing();
+        this.array = null;
+        this.largeArray = array;
+        setBlockLength(blockLength);
+        return this;
+    }
+
+    /**
+     * Makes this object {@link #isLarge() large} and fills it by zeros.
+     * The data are stored outside the Java heap: in a direct byte buffer ({@link BufferMemoryModel}),
+     * if the number of bytes is less than 2<sup>31</sup>, or in {@link LargeMemoryModel} in other case.
+     *
+     * @param elementType the element type.
+     * @param n           the number of blocks.
+     * @param blockLength the block length.
+     * @return a reference to this object.
+     */
+    public SNumbers setToLargeZeros(Class<?> elementType, long n, int blockLength) {
+        Objects.requireNonNull(elementType, "Null elementType");
+        if (!isSupportedJavaElementType(elementType)) {
+            throw new IllegalArgumentException("The element type is not byte, short, int, long, float "
+                    + "or double (it is " + elementType + ")");
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative n (number of blocks)");
+        }
+        if (blockLength <= 0) {
+            throw new IllegalArgumentException("Block length " + blockLength + " is not positive");
+        }
+        if (n > Long.MAX_VALUE / blockLength) {
+            throw new TooLargeArrayException("Too large required array: more that 2^63-1 elements");
+        }
+        final long length = n * blockLength;
+        return setToLarge(
+                (PNumberArray) largeMemoryModel(elementType, length).newUnresizableArray(elementType, length),
+                blockLength);
+    }
+
     public SNumbers setTo(IPoint point) {
         Objects.requireNonNull(point, "Null point");
         return setToArray(point.coordinates(), 1, false);
@@ -2684,7 +2913,8 @@ public final class SNumbers extends Data implements Cloneable {
             }
             return sb.toString();
         } else {
-            return super.toString() + " " + elementType() + "[" + blockLength + "*" + n() + "]";
+            return super.toString() + " " + elementType() + "[" + blockLength + "*" + longN() + "]"
+                    + (largeArray != null ? " (large)" : "");
         }
     }
 
@@ -2697,6 +2927,11 @@ public final class SNumbers extends Data implements Cloneable {
             return false;
         }
         final SNumbers numbers = (SNumbers) o;
+        if (largeArray != null || numbers.largeArray != null) {
+            return blockLength == numbers.blockLength
+                    && isInitialized() == numbers.isInitialized()
+                    && Objects.equals(asNumberArray(), numbers.asNumberArray());
+        }
         final int arrayLength = getArrayLength();
         return blockLength == numbers.blockLength
                 && arrayLength == numbers.getArrayLength()
@@ -2707,7 +2942,9 @@ public final class SNumbers extends Data implements Cloneable {
     @Override
     public int hashCode() {
         final int hash;
-        if (isByteArray()) {
+        if (largeArray != null) {
+            hash = largeHashCode();
+        } else if (isByteArray()) {
             hash = java.util.Arrays.hashCode((byte[]) array);
         } else if (isShortArray()) {
             hash = java.util.Arrays.hashCode((short[]) array);
@@ -2775,6 +3012,10 @@ public final class SNumbers extends Data implements Cloneable {
         return new SNumbers().setToZeros(elementType, n, blockLength);
     }
 
+    public static SNumbers largeZeros(Class<?> elementType, long n, int blockLength) {
+        return new SNumbers().setToLargeZeros(elementType, n, blockLength);
+    }
+
     public static void checkDimensions(long n, long blockLength) {
         if (n < 0) {
             throw new IllegalArgumentException("Negative n (number of blocks");
@@ -3103,14 +3344,18 @@ public final class SNumbers extends Data implements Cloneable {
 
     @Override
     protected void freeResources() {
+        releaseSharing();
         array = null;
+        largeArray = null;
     }
 
     @UsedForExternalCommunication
     private void setArray(Object javaArray) {
         Objects.requireNonNull(javaArray, "Null java array");
         if (isSupportedJavaArray(javaArray)) {
+            releaseSharing();
             this.array = javaArray;
+            this.largeArray = null;
         } else {
             throw new IllegalArgumentException("The passed java-array argument is not byte[], short[], int[], "
                     + "long[], float[] or double[] (it is " + javaArray.getClass().getSimpleName() + ")");
@@ -3140,9 +3385,28 @@ public final class SNumbers extends Data implements Cloneable {
 
     private SNumbers setToIdentical(SNumbers dataNumbers, boolean doClone) {
         Objects.requireNonNull(dataNumbers, "Null dataNumbers");
+        if (dataNumbers == this) {
+            return this;
+        }
+        releaseSharing();
+        if ((doClone && COPY_ON_WRITE) || dataNumbers.sharingCounter != null) {
+            // - note: we share data also while shallow copying of already shared data,
+            // in other case the modification of this object will damage other objects sharing the data
+            this.sharingCounter = dataNumbers.share();
+            this.array = dataNumbers.array;
+            this.largeArray = dataNumbers.largeArray;
+            this.blockLength = dataNumbers.blockLength;
+            this.flags = dataNumbers.flags;
+            setInitialized(dataNumbers.isInitialized());
+            return this;
+        }
         this.array = doClone && dataNumbers.isInitialized() ?
                 cloneJavaArray(dataNumbers.array) :
                 dataNumbers.array;
+        this.largeArray = doClone && dataNumbers.largeArray != null ?
+                (PNumberArray) dataNumbers.largeArray.updatableClone(
+                        largeMemoryModel(dataNumbers.largeArray.elementType(), dataNumbers.largeArray.length())) :
+                dataNumbers.largeArray;
         this.blockLength = dataNumbers.blockLength;
         this.flags = dataNumbers.flags;
         setInitialized(dataNumbers.isInitialized());
@@ -3153,6 +3417,7 @@ public final class SNumbers extends Data implements Cloneable {
         if (!isInitialized()) {
             throw new IllegalStateException("Numbers array is not initialized");
         }
+        checkNotLarge();
         if (indexInBlock < 0 || indexInBlock >= blockLength) {
             throw new IndexOutOfBoundsException("Index in block = " + indexInBlock
                     + " is out of range 0..blockLength-1 = 0.." + (blockLength - 1));
@@ -3269,6 +3534,7 @@ public final class SNumbers extends Data implements Cloneable {
             throw new IllegalArgumentException("Element type mismatch: cannot assign "
                     + otherNumbers.elementType() + "[] to " + elementType + "[]");
         }
+        beforeModification();
         final int n = n();
         if (n != otherNumbers.n()) {
             throw new IllegalArgumentException("Array lengths mismatch: this array contains "
@@ -4843,7 +5109,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleBytesElementFormatter(int estimatedCapacity) {
             super(estimatedCapacity);
-            this.array = (byte[]) arrayReference();
+            this.array = (byte[]) SNumbers.this.array;
         }
 
         @Override
@@ -4857,7 +5123,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private PrintfBytesElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (byte[]) arrayReference();
+            this.array = (byte[]) SNumbers.this.array;
         }
 
         @Override
@@ -4871,7 +5137,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private DecimalBytesElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (byte[]) arrayReference();
+            this.array = (byte[]) SNumbers.this.array;
         }
 
         @Override
@@ -4887,7 +5153,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleShortsElementFormatter(int estimatedCapacity) {
             super(estimatedCapacity);
-            this.array = (short[]) arrayReference();
+            this.array = (short[]) SNumbers.this.array;
         }
 
         @Override
@@ -4901,7 +5167,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private PrintfShortsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (short[]) arrayReference();
+            this.array = (short[]) SNumbers.this.array;
         }
 
         @Override
@@ -4915,7 +5181,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private DecimalShortsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (short[]) arrayReference();
+            this.array = (short[]) SNumbers.this.array;
         }
 
         @Override
@@ -4929,7 +5195,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleIntsElementFormatter(int estimatedCapacity) {
             super(estimatedCapacity);
-            this.array = (int[]) arrayReference();
+            this.array = (int[]) SNumbers.this.array;
         }
 
         @Override
@@ -4943,7 +5209,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private PrintfIntsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (int[]) arrayReference();
+            this.array = (int[]) SNumbers.this.array;
         }
 
         @Override
@@ -4957,7 +5223,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private DecimalIntsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (int[]) arrayReference();
+            this.array = (int[]) SNumbers.this.array;
         }
 
         @Override
@@ -4971,7 +5237,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleLongsElementFormatter(int estimatedCapacity) {
             super(estimatedCapacity);
-            this.array = (long[]) arrayReference();
+            this.array = (long[]) SNumbers.this.array;
         }
 
         @Override
@@ -4985,7 +5251,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private PrintfLongsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (long[]) arrayReference();
+            this.array = (long[]) SNumbers.this.array;
         }
 
         @Override
@@ -4999,7 +5265,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private DecimalLongsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (long[]) arrayReference();
+            this.array = (long[]) SNumbers.this.array;
         }
 
         @Override
@@ -5013,7 +5279,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleFloatsElementFormatter(int estimatedCapacity) {
             super(estimatedCapacity);
-            this.array = (float[]) arrayReference();
+            this.array = (float[]) SNumbers.this.array;
         }
 
         @Override
@@ -5027,7 +5293,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private PrintfFloatsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (float[]) arrayReference();
+            this.array = (float[]) SNumbers.this.array;
         }
 
         @Override
@@ -5041,7 +5307,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private DecimalFloatsElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (float[]) arrayReference();
+            this.array = (float[]) SNumbers.this.array;
         }
 
         @Override
@@ -5055,7 +5321,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleDoublesElementFormatter(int estimatedCapacity) {
             super(estimatedCapacity);
-            this.array = (double[]) arrayReference();
+            this.array = (double[]) SNumbers.this.array;
         }
 
         @Override
@@ -5069,7 +5335,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private PrintfDoublesElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (double[]) arrayReference();
+            this.array = (double[]) SNumbers.this.array;
         }
 
         @Override
@@ -5083,7 +5349,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private DecimalDoublesElementFormatter(Formatter formatter, int estimatedCapacity) {
             super(formatter, estimatedCapacity);
-            this.array = (double[]) arrayReference();
+            this.array = (double[]) SNumbers.this.array;
         }
 
         @Override
@@ -5103,7 +5369,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleForIntegersFloatsWrapper(ElementFormatter parent) {
             this.parent = parent;
-            this.array = (float[]) arrayReference();
+            this.array = (float[]) SNumbers.this.array;
         }
 
         @Override
@@ -5151,7 +5417,7 @@ public final class SNumbers extends Data implements Cloneable {
 
         private SimpleForIntegersDoublesWrapper(ElementFormatter parent) {
             this.parent = parent;
-            this.array = (double[]) arrayReference();
+            this.array = (double[]) SNumbers.this.array;
         }
 
         @Override
@@ -5209,6 +5475,114 @@ public final class SNumbers extends Data implements Cloneable {
         return result;
     }
 
+    private RuntimeException unsupportedJavaArray() {
+        checkNotLarge();
+        return new IllegalStateException("Unsupported Java array type: " + array);
+    }
+
+    private void checkNotLarge() {
+        if (largeArray != null) {
+            throw new IllegalStateException("Numbers array is large (" + largeArray.length()
+                    + " elements) and is not stored in a Java array: this operation is not supported, "
+                    + "please use methods with long indexing like longN()");
+        }
+    }
+
+    private int smallIndex(long indexInArray) {
+        if (indexInArray < 0 || indexInArray > Integer.MAX_VALUE) {
+            throw new IndexOutOfBoundsException("Index " + indexInArray + " is out of range 0..2^31-1");
+        }
+        return (int) indexInArray;
+    }
+
+    private UpdatablePNumberArray updatableLargeArray() {
+        if (!(largeArray instanceof UpdatablePNumberArray)) {
+            throw new IllegalStateException("Large numbers array is read-only: " + largeArray);
+        }
+        beforeModification();
+        return (UpdatablePNumberArray) largeArray;
+    }
+
+    // Returns the counter, which should be stored in the new object, sharing the data with this one
+    private synchronized AtomicInteger share() {
+        if (array == null && largeArray == null) {
+            return null;
+        }
+        if (sharingCounter == null) {
+            sharingCounter = new AtomicInteger(1);
+        }
+        sharingCounter.incrementAndGet();
+        return sharingCounter;
+    }
+
+    private boolean isShared() {
+        final AtomicInteger counter = this.sharingCounter;
+        return counter != null && counter.get() > 1;
+    }
+
+    private synchronized void beforeModification() {
+        final AtomicInteger counter = this.sharingCounter;
+        if (counter == null) {
+            return;
+        }
+        this.sharingCounter = null;
+        if (counter.decrementAndGet() > 0) {
+            // - other objects still use the same data: we must not change it
+            if (array != null) {
+                array = cloneJavaArray(array);
+            }
+            if (largeArray != null) {
+                largeArray = (PNumberArray) largeArray.updatableClone(
+                        largeMemoryModel(largeArray.elementType(), largeArray.length()));
+            }
+        }
+    }
+
+    private synchronized void releaseSharing() {
+        if (sharingCounter != null) {
+            sharingCounter.decrementAndGet();
+            sharingCounter = null;
+        }
+    }
+
+    // Copies the large array into a new usual SNumbers; throws TooLargeArrayException if it is too large
+    private SNumbers largeToSmall() {
+        return new SNumbers().setToArray(largeArray.toJavaArray(), blockLength, false);
+    }
+
+    private long largeLongValue(long indexInArray) {
+        return largeArray instanceof PFixedArray a ? a.getLong(indexInArray) : (long) largeArray.getDouble(indexInArray);
+    }
+
+    // Equivalent to hash codes of java.util.Arrays for the same Java array
+    private int largeHashCode() {
+        int result = 1;
+        final long n = largeArray.length();
+        final boolean floatingPoint = largeArray instanceof PFloatingArray;
+        final boolean doublePrecision = largeArray instanceof DoubleArray || largeArray instanceof LongArray;
+        for (long k = 0; k < n; k++) {
+            final int elementHash;
+            if (floatingPoint) {
+                elementHash = doublePrecision ?
+                        Double.hashCode(largeArray.getDouble(k)) :
+                        Float.hashCode((float) largeArray.getDouble(k));
+            } else {
+                final long v = largeLongValue(k);
+                elementHash = largeArray instanceof ByteArray ? (byte) v :
+                        largeArray instanceof ShortArray ? (short) v :
+                                doublePrecision ? Long.hashCode(v) : (int) v;
+            }
+            result = 31 * result + elementHash;
+        }
+        return result;
+    }
+
+    private static MemoryModel largeMemoryModel(Class<?> elementType, long length) {
+        return Arrays.sizeOf(elementType, length) <= Integer.MAX_VALUE ?
+                BufferMemoryModel.getInstance() :
+                LargeMemoryModel.getInstance();
+    }
+
     private static Object cloneJavaArray(Object value) {
         if (value == null) {
             return null;
@@ -42,8 +42,23 @@ import java.util.stream.Stream;
  * resources. It is important while using inside user-defined scripts.
  */
 public final class SScalar extends Data {
+    private enum TypedValue {
+        NONE,
+        LONG,
+        DOUBLE,
+        BOOLEAN
+    }
+
     private String value = null;
-    // - note: null means "non-initialized"
+    // - note: null means "non-initialized", if typedValue is NONE;
+    // in another case, it is not created yet and will be created from typed value by getValue()
+
+    private TypedValue typedValue = TypedValue.NONE;
+    private long longValue = 0;
+    // - for BOOLEAN: 1 or 0
+    private double doubleValue = 0.0;
+    // Typed value, stored by setTo(long/int/double/boolean) without formatting the string:
+    // numeric consumers like toDouble() use it without parsing.
 
     @UsedForExternalCommunication
     public SScalar() {
@@ -63,16 +78,35 @@ public final class SScalar extends Data {
      */
     @UsedForExternalCommunication
     public String getValue() {
-        return value;
+        String result = value;
+        if (result == null && typedValue != TypedValue.NONE) {
+            this.value = result = typedValueToString();
+            // - benign race: all threads create the same string
+        }
+        return result;
     }
 
     public String getValueOrDefault(String defaultValue) {
-        return isInitialized() ? value : defaultValue;
+        return isInitialized() ? getValue() : defaultValue;
+    }
+
+    /**
+     * Returns <code>true</code> if this scalar was set by {@link #setTo(long)}, {@link #setTo(int)}
+     * or {@link #setTo(double)} methods (or copied from such a scalar). In this case, methods like
+     * {@link #toDouble()} or {@link #toLong()} return the stored number without parsing the string.
+     *
+     * @return whether this scalar stores a number in binary form.
+     */
+    public boolean isTypedNumber() {
+        return typedValue == TypedValue.LONG || typedValue == TypedValue.DOUBLE;
     }
 
     public SScalar setTo(SScalar scalar) {
         Objects.requireNonNull(scalar, "Null scalar");
         this.value = scalar.value;
+        this.typedValue = scalar.typedValue;
+        this.longValue = scalar.longValue;
+        this.doubleValue = scalar.doubleValue;
         this.flags = scalar.flags;
         setInitialized(scalar.isInitialized());
         return this;
@@ -84,17 +118,17 @@ public final class SScalar extends Data {
     }
 
     public SScalar setTo(boolean value) {
-        setValue(String.valueOf(value));
+        setTypedValue(TypedValue.BOOLEAN, value ? 1 : 0, 0.0);
         return this;
     }
 
     public SScalar setTo(int value) {
-        setValue(String.valueOf(value));
+        setTypedValue(TypedValue.LONG, value, 0.0);
         return this;
     }
 
     public SScalar setTo(long value) {
-        setValue(String.valueOf(value));
+        setTypedValue(TypedValue.LONG, value, 0.0);
         return this;
     }
 
@@ -102,7 +136,7 @@ public final class SScalar extends Data {
         if (value == (long) value) {
             setTo((long) value);
         } else {
-            setValue(String.valueOf(value));
+            setTypedValue(TypedValue.DOUBLE, 0, value);
         }
         return this;
     }
@@ -254,44 +288,66 @@ public final class SScalar extends Data {
         }
         final long tempFlags = this.flags;
         final String tempValue = this.value;
+        final TypedValue tempTypedValue = this.typedValue;
+        final long tempLongValue = this.longValue;
+        final double tempDoubleValue = this.doubleValue;
         this.flags = otherScalar.flags;
         this.value = otherScalar.value;
+        this.typedValue = otherScalar.typedValue;
+        this.longValue = otherScalar.longValue;
+        this.doubleValue = otherScalar.doubleValue;
         otherScalar.flags = tempFlags;
         otherScalar.value = tempValue;
+        otherScalar.typedValue = tempTypedValue;
+        otherScalar.longValue = tempLongValue;
+        otherScalar.doubleValue = tempDoubleValue;
         return this;
     }
 
     public boolean toJavaLikeBoolean() {
-        if (value == null) {
+        if (isNull()) {
             throw new IllegalStateException("Non-initialized scalar cannot be converted to boolean");
         }
-        return toJavaLikeBoolean(value);
+        return switch (typedValue) {
+            case BOOLEAN -> longValue != 0;
+            case LONG, DOUBLE -> false;
+            // - numbers are never equal to "true"
+            default -> toJavaLikeBoolean(value);
+        };
     }
 
     public boolean toJavaLikeBoolean(boolean defaultValue) {
-        return value != null ? toJavaLikeBoolean(value) : defaultValue;
+        return !isNull() ? toJavaLikeBoolean() : defaultValue;
     }
 
     public boolean toCLikeBoolean() {
-        if (value == null) {
+        if (isNull()) {
             throw new IllegalStateException("Non-initialized scalar cannot be converted to boolean");
         }
-        return toCLikeBoolean(value);
+        return switch (typedValue) {
+            case LONG -> longValue != 0;
+            case DOUBLE -> doubleValue != 0.0;
+            default -> toCLikeBoolean(getValue());
+        };
     }
 
     public boolean toCLikeBoolean(boolean defaultValue) {
-        return value != null ? toCLikeBoolean(value) : defaultValue;
+        return !isNull() ? toCLikeBoolean() : defaultValue;
     }
 
     public boolean toCommonBoolean() {
-        if (value == null) {
+        if (isNull()) {
             throw new IllegalStateException("Non-initialized scalar cannot be converted to boolean");
         }
-        return toCommonBoolean(value);
+        return switch (typedValue) {
+            case BOOLEAN, LONG -> longValue != 0;
+            case DOUBLE -> doubleValue != 0.0;
+            default -> toCommonBoolean(value);
+        };
     }
 
     public boolean toCommonBoolean(boolean defaultValue) {
-        return toCommonBoolean(value, defaultValue);
+        return !isNull() ? toCommonBoolean() : defaultValue;
     }
 
     /**
@@ -304,23 +360,23 @@ public final class SScalar extends Data {
      * @throws NumberFormatException if this scalar cannot be parsed as int value or actually integer double value.
      */
     public int toInt() {
-        if (value == null) {
+        if (isNull()) {
             throw new NumberFormatException("Non-initialized scalar cannot be converted to int");
         }
-        final long value = Math.round(Double.parseDouble(this.value));
+        final long value = typedValue == TypedValue.LONG ? longValue : Math.round(toDouble());
         if (value != (int) value) {
             throw new NumberFormatException("Scalar contain too large value for 32-bit int type: "
-                    + Double.parseDouble(this.value));
+                    + toDouble());
         }
         return (int) value;
     }
 
     public Integer toIntOrNull() {
-        return value == null ? null : toInt();
+        return isNull() ? null : toInt();
     }
 
     public int toIntOrDefault(int defaultValue) {
-        return value == null ? defaultValue : toInt();
+        return isNull() ? defaultValue : toInt();
     }
 
     /**
@@ -333,33 +389,37 @@ public final class SScalar extends Data {
      * @throws NumberFormatException if this scalar cannot be parsed as long value by <code>Long.parseLong</code>.
      */
     public long toLong() {
-        if (value == null) {
+        if (isNull()) {
             throw new NumberFormatException("Non-initialized scalar cannot be converted to long");
         }
-        return Long.parseLong(this.value);
+        return typedValue == TypedValue.LONG ? longValue : Long.parseLong(getValue());
     }
 
     public Long toLongOrNull() {
-        return value == null ? null : toLong();
+        return isNull() ? null : toLong();
     }
 
     public long toLongOrDefault(long defaultValue) {
-        return value == null ? defaultValue : toLong();
+        return isNull() ? defaultValue : toLong();
     }
 
     public double toDouble() {
-        if (value == null) {
+        if (isNull()) {
             throw new NumberFormatException("Non-initialized scalar cannot be converted to double");
         }
-        return Double.parseDouble(value);
+        return switch (typedValue) {
+            case LONG -> (double) longValue;
+            case DOUBLE -> doubleValue;
+            default -> Double.parseDouble(getValue());
+        };
     }
 
     public Double toDoubleOrNull() {
-        return value == null ? null : toDouble();
+        return isNull() ? null : toDouble();
     }
 
     public double toDoubleOrDefault(double defaultValue) {
-        return value == null ? defaultValue : toDouble();
+        return isNull() ? defaultValue : toDouble();
     }
 
     //[[Repeat() int\[ ==> long[,,double[;;
@@ -369,10 +429,10 @@ public final class SScalar extends Data {
     }
 
     public int[] toInts(int minRequiredNumberOfDoubles) throws NumberFormatException, IllegalStateException {
-        if (value == null) {
+        if (isNull()) {
             throw new NumberFormatException("Non-initialized scalar cannot be converted to int[]");
         }
-        final String trimmed = value.trim();
+        final String trimmed = getValue().trim();
         if (trimmed.isEmpty()) {
             return new int[0];
         }
@@ -393,10 +453,10 @@ public final class SScalar extends Data {
     }
 
     public long[] toLongs(int minRequiredNumberOfDoubles) throws NumberFormatException, IllegalStateException {
-        if (value == null) {
+        if (isNull()) {
             throw new NumberFormatException("Non-initialized scalar cannot be converted to long[]");
         }
-        final String trimmed = value.trim();
+        final String trimmed = getValue().trim();
         if (trimmed.isEmpty()) {
             return new long[0];
         }
@@ -416,10 +476,10 @@ public final class SScalar extends Data {
     }
 
     public double[] toDoubles(int minRequiredNumberOfDoubles) throws NumberFormatException, IllegalStateException {
-        if (value == null) {
+        if (isNull()) {
             throw new NumberFormatException("Non-initialized scalar cannot be converted to double[]");
         }
-        final String trimmed = value.trim();
+        final String trimmed = getValue().trim();
         if (trimmed.isEmpty()) {
             return new double[0];
         }
@@ -437,23 +497,23 @@ public final class SScalar extends Data {
     //[[Repeat.AutoGeneratedEnd]]
 
     public String[] toTrimmedLinesArray() {
-        return value == null ? null : splitJsonOrTrimmedLinesArray(value);
+        return isNull() ? null : splitJsonOrTrimmedLinesArray(getValue());
     }
 
     public List<String> toTrimmedLines() {
-        return value == null ? null : splitJsonOrTrimmedLines(value);
+        return isNull() ? null : splitJsonOrTrimmedLines(getValue());
     }
 
     public String[] toTrimmedLinesWithoutCommentsArray() {
-        return value == null ? null : splitJsonOrTrimmedLinesWithoutCommentsArray(value);
+        return isNull() ? null : splitJsonOrTrimmedLinesWithoutCommentsArray(getValue());
     }
 
     public List<String> toTrimmedLinesWithoutComments() {
-        return value == null ? null : splitJsonOrTrimmedLinesWithoutComments(value);
+        return isNull() ? null : splitJsonOrTrimmedLinesWithoutComments(getValue());
     }
 
     public MultiLineOrJsonSplitter toTrimmedLinesWithComments() {
-        return value == null ? null : splitJsonOrTrimmedLinesWithComments(value);
+        return isNull() ? null : splitJsonOrTrimmedLinesWithComments(getValue());
     }
 
     /**
@@ -469,6 +529,7 @@ public final class SScalar extends Data {
         if (!isInitialized()) {
             return super.toString();
         }
+        final String value = getValue();
         assert value != null : "null initialized value";
         final int len = Math.min(value.length(), 128);
         for (int p = 0; p < len; p++) {
@@ -585,15 +646,39 @@ public final class SScalar extends Data {
     @Override
     protected void freeResources() {
         value = null;
+        typedValue = TypedValue.NONE;
     }
 
     @UsedForExternalCommunication
     private void setValue(String value) {
         this.value = value;
+        this.typedValue = TypedValue.NONE;
         setInitializedAndResetFlags(value != null);
         // - no sense to keep uninitialized state
     }
 
+    private void setTypedValue(TypedValue typedValue, long longValue, double doubleValue) {
+        this.value = null;
+        // - will be created on demand by getValue()
+        this.typedValue = typedValue;
+        this.longValue = longValue;
+        this.doubleValue = doubleValue;
+        setInitializedAndResetFlags(true);
+    }
+
+    private boolean isNull() {
+        return value == null && typedValue == TypedValue.NONE;
+    }
+
+    private String typedValueToString() {
+        return switch (typedValue) {
+            case LONG -> String.valueOf(longValue);
+            case DOUBLE -> String.valueOf(doubleValue);
+            case BOOLEAN -> String.valueOf(longValue != 0);
+            case NONE -> null;
+        };
+    }
+
     private static boolean doubleToBoolean(String scalar) {
         if (scalar.isEmpty()) {
             return false;
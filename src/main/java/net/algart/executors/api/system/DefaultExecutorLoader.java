@@ -86,17 +86,18 @@ public class DefaultExecutorLoader<W> extends ExecutorLoader {
     }
 
     public W registeredWorker(String sessionId, String executorId) {
+        final W result = registeredWorkerOrNull(sessionId, executorId);
+        Objects.requireNonNull(result, "Cannot find registered worker with id \"" +
+                executorId + "\" for session \"" + sessionId + "\"");
+        return result;
+    }
+
+    public W registeredWorkerOrNull(String sessionId, String executorId) {
         Objects.requireNonNull(sessionId, "Null sessionId");
         Objects.requireNonNull(executorId, "Null executorId");
         synchronized (lock) {
-            W result = getWorker(ExecutionBlock.GLOBAL_SHARED_SESSION_ID, executorId);
-            if (result != null) {
-                return result;
-            }
-            result = getWorker(sessionId, executorId);
-            Objects.requireNonNull(result, "Cannot find registered worker with id \"" +
-                    executorId + "\" for session \"" + sessionId + "\"");
-            return result;
+            final W result = getWorker(ExecutionBlock.GLOBAL_SHARED_SESSION_ID, executorId);
+            return result != null ? result : getWorker(sessionId, executorId);
         }
     }
 
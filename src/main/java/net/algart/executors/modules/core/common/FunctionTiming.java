@@ -24,29 +24,58 @@
 
 package net.algart.executors.modules.core.common;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Locale;
+import java.util.Objects;
 
 public class FunctionTiming {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = isCpuTimeSupported();
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = allocationMXBean();
+
+    private final boolean sketch;
     private int maximalNumberOfAnalysedCalls;
     private TimingStatistics execution;
     private TimingStatistics passingData;
     private TimingStatistics summary;
+    private TimingStatistics cpuTime;
+    private TimingStatistics allocatedBytes;
+    // - not times, but TimingStatistics is a good container for any long values
 
-    private FunctionTiming(int maximalNumberOfAnalysedCalls) {
+    private FunctionTiming(int maximalNumberOfAnalysedCalls, boolean sketch) {
         if (maximalNumberOfAnalysedCalls < 0) {
             throw new IllegalArgumentException("Negative number of analysed calls for timing execution: "
                     + maximalNumberOfAnalysedCalls);
         }
+        this.sketch = sketch;
         this.maximalNumberOfAnalysedCalls = maximalNumberOfAnalysedCalls;
         resetStatistics();
     }
 
     public static FunctionTiming newDisabledInstance() {
-        return new FunctionTiming(0);
+        return new FunctionTiming(0, false);
     }
 
     public static FunctionTiming newInstance(int maximalNumberOfAnalysedCalls) {
-        return new FunctionTiming(maximalNumberOfAnalysedCalls);
+        return new FunctionTiming(maximalNumberOfAnalysedCalls, false);
+    }
+
+    /**
+     * Creates disabled timing, which will use {@link TimingStatistics.Sketch sketches} instead of
+     * storing the last times, when it is enabled by a positive
+     * {@link #setMaximalNumberOfAnalysedCalls(int) number of analysed calls}.
+     * In this case, the number of analysed calls only enables the timing: the statistics describe
+     * all calls from the start (or from the last change of this number).
+     *
+     * @return new disabled sketch-based timing.
+     */
+    public static FunctionTiming newDisabledSketchInstance() {
+        return new FunctionTiming(0, true);
+    }
+
+    public boolean isSketch() {
+        return sketch;
     }
 
     public int getMaximalNumberOfAnalysedCalls() {
@@ -66,6 +95,8 @@ public class FunctionTiming {
         execution.setSettings(settings);
         passingData.setSettings(settings);
         summary.setSettings(settings);
+        cpuTime.setSettings(settings);
+        allocatedBytes.setSettings(settings);
         return this;
     }
 
@@ -76,15 +107,39 @@ public class FunctionTiming {
     }
 
     public final void resetStatistics() {
-        this.execution = TimingStatistics.newInstance(maximalNumberOfAnalysedCalls);
-        this.passingData = TimingStatistics.newInstance(maximalNumberOfAnalysedCalls);
-        this.summary = TimingStatistics.newInstance(maximalNumberOfAnalysedCalls);
+        this.execution = newStatistics();
+        this.passingData = newStatistics();
+        this.summary = newStatistics();
+        this.cpuTime = newStatistics();
+        this.allocatedBytes = newStatistics();
     }
 
     public long currentTime() {
         return execution.currentTime();
     }
 
+    /**
+     * Returns CPU time of the current thread in nanoseconds, if this timing is enabled
+     * and measuring CPU time is supported by JVM, or 0 in other case.
+     *
+     * @return CPU time of the current thread or 0.
+     */
+    public long currentThreadCpuTime() {
+        return maximalNumberOfAnalysedCalls > 0 && CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Returns the total number of bytes, allocated in the heap by the current thread,
+     * if this timing is enabled and measuring allocated memory is supported by JVM, or 0 in other case.
+     *
+     * @return number of bytes, allocated by the current thread, or 0.
+     */
+    public long currentThreadAllocatedBytes() {
+        return maximalNumberOfAnalysedCalls > 0 && ALLOCATION_MX_BEAN != null ?
+                ALLOCATION_MX_BEAN.getCurrentThreadAllocatedBytes() :
+                0;
+    }
+
     public void updateExecution(long time) {
         execution.update(time);
     }
@@ -97,10 +152,46 @@ public class FunctionTiming {
         summary.update(time);
     }
 
+    public void updateCpuTime(long time) {
+        if (CPU_TIME_SUPPORTED) {
+            cpuTime.update(time);
+        }
+    }
+
+    public void updateAllocatedBytes(long bytes) {
+        if (ALLOCATION_MX_BEAN != null) {
+            allocatedBytes.update(bytes);
+        }
+    }
+
+    /**
+     * Adds all calls, described by other sketch-based timing, to this one.
+     * Both timings must be {@link #newDisabledSketchInstance() sketch-based}; if one of them is disabled,
+     * this method does nothing.
+     *
+     * @param other some other timing; not modified.
+     * @return a reference to this object.
+     * @throws IllegalArgumentException if one of the timings is not sketch-based.
+     */
+    public FunctionTiming merge(FunctionTiming other) {
+        Objects.requireNonNull(other, "Null other timing");
+        if (!sketch || !other.sketch) {
+            throw new IllegalArgumentException("Only sketch-based timings can be merged");
+        }
+        merge(execution, other.execution);
+        merge(passingData, other.passingData);
+        merge(summary, other.summary);
+        merge(cpuTime, other.cpuTime);
+        merge(allocatedBytes, other.allocatedBytes);
+        return this;
+    }
+
     public void analyse() {
         execution.analyse();
         passingData.analyse();
         summary.analyse();
+        cpuTime.analyse();
+        allocatedBytes.analyse();
     }
 
     public TimingStatistics execution() {
@@ -115,6 +206,26 @@ public class FunctionTiming {
         return summary;
     }
 
+    /**
+     * CPU time of the current thread, usually measured around the execution.
+     * Empty if measuring CPU time is not supported by JVM.
+     *
+     * @return statistics of CPU time.
+     */
+    public TimingStatistics cpuTime() {
+        return cpuTime;
+    }
+
+    /**
+     * Number of bytes, allocated by the current thread, usually measured around the execution.
+     * Empty if measuring allocated memory is not supported by JVM.
+     *
+     * @return statistics of allocated memory (in bytes, not in nanoseconds).
+     */
+    public TimingStatistics allocatedBytes() {
+        return allocatedBytes;
+    }
+
     public double summaryTimeOfLastAnalysedCalls() {
         return summary.summaryTimeOfLastAnalysedCalls();
     }
@@ -128,16 +239,21 @@ public class FunctionTiming {
     }
 
     public String toSimpleStringForSummary(Double totalTimeOfLastAnalysedCalls) {
-        return isEmpty() ? "was not executed" : "summary: " + summary.toSimpleString(totalTimeOfLastAnalysedCalls);
+        return isEmpty() ? "was not executed" : "summary: " + summary.toSimpleString(totalTimeOfLastAnalysedCalls)
+                + resourcesString();
     }
 
     public String toString(String lineSeparator) {
         final int n = execution.numberOfStoredTimes();
         return n == 0 ? "was not executed" :
-                "timing for " + n + " last calls:"
+                "timing for " + (sketch ? "all " + n + " calls (sketch):" : n + " last calls:")
                         + lineSeparator + "summary:   " + summary + ", including"
                         + lineSeparator + "execution: " + execution + " and"
-                        + lineSeparator + "copying:   " + passingData;
+                        + lineSeparator + "copying:   " + passingData
+                        + (cpuTime.numberOfAnalysedTimes() == 0 ? "" :
+                        lineSeparator + "CPU time:  " + cpuTime)
+                        + (allocatedBytes.numberOfAnalysedTimes() == 0 ? "" :
+                        lineSeparator + "allocated: " + allocatedString());
     }
 
     @Override
@@ -145,6 +261,57 @@ public class FunctionTiming {
         return toString(String.format("%n      "));
     }
 
+    private TimingStatistics newStatistics() {
+        return sketch && maximalNumberOfAnalysedCalls > 0 ?
+                TimingStatistics.newSketchInstance() :
+                TimingStatistics.newInstance(maximalNumberOfAnalysedCalls);
+    }
+
+    private static void merge(TimingStatistics statistics, TimingStatistics other) {
+        if (statistics instanceof TimingStatistics.Sketch sketch && other instanceof TimingStatistics.Sketch o) {
+            sketch.merge(o);
+        }
+    }
+
+    private String resourcesString() {
+        final StringBuilder sb = new StringBuilder();
+        if (cpuTime.numberOfAnalysedTimes() > 0) {
+            sb.append(String.format(Locale.US, ", CPU ~%.6f ms", cpuTime.averageTimeOfLastAnalysedCalls() * 1e-6));
+        }
+        if (allocatedBytes.numberOfAnalysedTimes() > 0) {
+            sb.append(String.format(Locale.US, ", allocated ~%.3f MB",
+                    allocatedBytes.averageTimeOfLastAnalysedCalls() / 1048576.0));
+        }
+        return sb.toString();
+    }
+
+    private String allocatedString() {
+        return String.format(Locale.US, "%d calls: last %.3f, sum %.3f, mean ~%.3f MB",
+                allocatedBytes.numberOfAnalysedTimes(),
+                allocatedBytes.lastTime() / 1048576.0,
+                allocatedBytes.summaryTimeOfLastAnalysedCalls() / 1048576.0,
+                allocatedBytes.averageTimeOfLastAnalysedCalls() / 1048576.0);
+    }
+
+    private static boolean isCpuTimeSupported() {
+        try {
+            return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMXBean() {
+        try {
+            return THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ?
+                    bean :
+                    null;
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
     public static void main(String[] args) {
         TimingStatistics.Settings settings = new TimingStatistics.Settings().setUniformPercentileLevels(5);
         FunctionTiming timing = FunctionTiming.newInstance(100).setSettings(settings);
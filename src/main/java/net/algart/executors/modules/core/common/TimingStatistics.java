@@ -103,6 +103,17 @@ public abstract class TimingStatistics {
         return maximalNumberOfStoredTimes == 0 ? new Empty() : new NonEmpty(maximalNumberOfStoredTimes);
     }
 
+    /**
+     * Creates new statistics, based on a {@link Sketch histogram sketch} instead of storing the last times.
+     * Such statistics describe all calls from the start with constant memory and can be
+     * {@link Sketch#merge(Sketch) merged}.
+     *
+     * @return new empty sketch.
+     */
+    public static Sketch newSketchInstance() {
+        return new Sketch();
+    }
+
     public void setSettings(Settings settings) {
         Objects.requireNonNull(settings, "Null settings");
         this.percentileLevels = settings.percentileLevels.clone();
@@ -126,9 +137,8 @@ public abstract class TimingStatistics {
         // for summing and finding percentiles, we may just use all elements ignoring lastTimeIndex
 
         final int n = numberOfStoredTimes();
-        sum = Arrays.stream(times, 0, n).sum();
-        findPercentiles(percentiles, times, n, percentileLevels);
-        // Note: this method destroys (reorders) times array, but it is not a problem for further calls.
+        sum = sumOfStoredTimes(n);
+        findPercentiles(percentiles, n, percentileLevels);
         numberOfAnalysedTimes = n;
         return this;
     }
@@ -254,11 +264,16 @@ public abstract class TimingStatistics {
                 allInfo);
     }
 
-    private static void findPercentiles(long[] result, long[] times, int length, double[] percentileLevels) {
+    long sumOfStoredTimes(int length) {
+        return Arrays.stream(times, 0, length).sum();
+    }
+
+    void findPercentiles(long[] result, int length, double[] percentileLevels) {
         assert length >= 0 && length <= times.length : "length=" + length + ", must be 0<length<=" + times.length;
         assert result.length == percentileLevels.length;
         if (length > 0 && percentileLevels.length > 0) {
             ArraySelector.getQuickSelector().select(percentileLevels, times, length);
+            // Note: this method destroys (reorders) times array, but it is not a problem for further calls.
             Arrays.setAll(result, k -> times[ArraySelector.percentileIndex(percentileLevels[k], length)]);
         }
     }
@@ -282,6 +297,131 @@ public abstract class TimingStatistics {
         }
     }
 
+    /**
+     * Statistics, based on a log-linear histogram (like HDR histogram) instead of storing the last times.
+     *
+     * <p>Every time is added to one of {@link #NUMBER_OF_BUCKETS} buckets in O(1) operations;
+     * the memory is constant and does not depend on the number of calls.
+     * Times less than 2<sup>{@link #SUB_BUCKET_BITS}+1</sup> ns are stored exactly;
+     * for greater times, the relative error of the percentiles is not greater than
+     * 2<sup>&minus;{@link #SUB_BUCKET_BITS}</sup> (~3%). Minimum and maximum are always exact.
+     *
+     * <p>Unlike usual statistics, the sketch describes all calls from its creation or the last {@link #clear()}:
+     * so, {@link #numberOfStoredTimes()} is the number of all calls (if it is less than 2<sup>31</sup>).
+     * Sketches, collected by different blocks or threads, can be combined by {@link #merge(Sketch)}.
+     *
+     * <p>This class is not thread-safe, like other statistics: for measuring in several threads, please
+     * use a separate sketch in every thread and merge them.
+     */
+    public static final class Sketch extends TimingStatistics {
+        public static final int SUB_BUCKET_BITS = 5;
+        public static final int NUMBER_OF_BUCKETS = ((62 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS)
+                + (2 << SUB_BUCKET_BITS);
+
+        private final long[] counts = new long[NUMBER_OF_BUCKETS];
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        private Sketch() {
+            super(0);
+        }
+
+        @Override
+        public long currentTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void update(long time) {
+            sumOfAllCalls += time;
+            numberOfAllCalls++;
+            last = time;
+            if (time < min) {
+                min = time;
+            }
+            if (time > max) {
+                max = time;
+            }
+            counts[bucketIndex(time)]++;
+        }
+
+        /**
+         * Adds all calls, described by other sketch, to this one.
+         *
+         * @param other some other sketch; not modified.
+         * @return a reference to this object.
+         */
+        public Sketch merge(Sketch other) {
+            Objects.requireNonNull(other, "Null other sketch");
+            for (int k = 0; k < counts.length; k++) {
+                counts[k] += other.counts[k];
+            }
+            sumOfAllCalls += other.sumOfAllCalls;
+            numberOfAllCalls += other.numberOfAllCalls;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            if (other.numberOfAllCalls > 0) {
+                last = other.last;
+            }
+            return this;
+        }
+
+        public void clear() {
+            Arrays.fill(counts, 0);
+            sumOfAllCalls = 0;
+            numberOfAllCalls = 0;
+            last = 0;
+            min = Long.MAX_VALUE;
+            max = Long.MIN_VALUE;
+        }
+
+        @Override
+        public int numberOfStoredTimes() {
+            return (int) Math.min(numberOfAllCalls, Integer.MAX_VALUE);
+        }
+
+        @Override
+        long sumOfStoredTimes(int length) {
+            return sumOfAllCalls;
+        }
+
+        @Override
+        void findPercentiles(long[] result, int length, double[] percentileLevels) {
+            assert result.length == percentileLevels.length;
+            final long n = numberOfAllCalls;
+            if (n == 0 || percentileLevels.length == 0) {
+                return;
+            }
+            final Integer[] order = new Integer[percentileLevels.length];
+            Arrays.setAll(order, k -> k);
+            Arrays.sort(order, (a, b) -> Double.compare(percentileLevels[a], percentileLevels[b]));
+            long cumulative = 0;
+            int bucket = -1;
+            for (int k : order) {
+                final long rank = Math.round(percentileLevels[k] * (n - 1));
+                while (cumulative <= rank && bucket < counts.length - 1) {
+                    cumulative += counts[++bucket];
+                }
+                result[k] = rank == 0 ? min : rank == n - 1 ? max :
+                        Math.min(Math.max(bucketMiddle(bucket), min), max);
+            }
+        }
+
+        static int bucketIndex(long value) {
+            if (value < 0) {
+                return 0;
+            }
+            final int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+            return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+        }
+
+        static long bucketMiddle(int index) {
+            final int shift = Math.max(0, (index >>> SUB_BUCKET_BITS) - 1);
+            final long lower = (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+            return lower + (((1L << shift) - 1) >> 1);
+        }
+    }
+
     private static class NonEmpty extends TimingStatistics {
         private NonEmpty(int numberOfTimes) {
             super(numberOfTimes);
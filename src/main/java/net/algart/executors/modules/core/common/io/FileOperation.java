@@ -24,7 +24,9 @@
 
 package net.algart.executors.modules.core.common.io;
 
+import net.algart.executors.api.BlockingExecution;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.io.MatrixIO;
 
 import java.nio.file.Path;
@@ -33,7 +35,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-public abstract class FileOperation extends Executor {
+public abstract class FileOperation extends Executor implements BlockingExecution, NonDeterministicExecution {
     public static final String INPUT_FILE = "file";
     public static final String INPUT_FILE_NAME_ADDITION = "file_name_addition";
     public static final String OUTPUT_ABSOLUTE_PATH = "absolute_path";
@@ -33,6 +33,11 @@ public enum ConditionStyle {
             return scalar == null ? defaultCondition : SScalar.toCLikeBoolean(scalar);
         }
 
+        @Override
+        public boolean toBoolean(SScalar scalar, boolean defaultCondition) {
+            return scalar.toCLikeBoolean(defaultCondition);
+        }
+
         @Override
         public void setScalar(SScalar result, boolean value) {
             result.setTo(value ? 1 : 0);
@@ -45,6 +50,11 @@ public enum ConditionStyle {
             return scalar == null ? defaultCondition : SScalar.toJavaLikeBoolean(scalar);
         }
 
+        @Override
+        public boolean toBoolean(SScalar scalar, boolean defaultCondition) {
+            return scalar.toJavaLikeBoolean(defaultCondition);
+        }
+
         @Override
         public void setScalar(SScalar result, boolean value) {
             result.setTo(value);
@@ -53,5 +63,15 @@ public enum ConditionStyle {
 
     public abstract boolean toBoolean(String scalar, boolean defaultCondition);
 
+    /**
+     * Equivalent to <code>{@link #toBoolean(String, boolean) toBoolean}(scalar.getValue(), defaultCondition)</code>,
+     * but does not format the string if the scalar stores a number or boolean value.
+     *
+     * @param scalar           some scalar; must not be <code>null</code>.
+     * @param defaultCondition the value returned for non-initialized scalar.
+     * @return the condition, described by the scalar.
+     */
+    public abstract boolean toBoolean(SScalar scalar, boolean defaultCondition);
+
     public abstract void setScalar(SScalar result, boolean value);
 }
@@ -25,6 +25,7 @@
 package net.algart.executors.modules.core.logic.compiler.js.interpreters;
 
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.modules.core.logic.compiler.js.UseJS;
 import net.algart.executors.modules.core.logic.compiler.js.model.JSCaller;
@@ -32,7 +33,7 @@ import org.graalvm.polyglot.Value;
 
 import java.util.Locale;
 
-public class InterpretJS extends Executor implements ReadOnlyExecutionInput {
+public class InterpretJS extends Executor implements ReadOnlyExecutionInput, NonDeterministicExecution {
     private volatile JSCaller jsCaller = null;
 
     public InterpretJS() {
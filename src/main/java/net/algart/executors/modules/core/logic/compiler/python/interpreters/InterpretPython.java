@@ -26,14 +26,17 @@ package net.algart.executors.modules.core.logic.compiler.python.interpreters;
 
 import net.algart.bridges.jep.additions.AtomicPyObject;
 import net.algart.bridges.jep.api.JepPlatforms;
+import net.algart.executors.api.BlockingExecution;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.modules.core.logic.compiler.python.UsingPython;
 import net.algart.executors.modules.core.logic.compiler.python.model.PythonCaller;
 
 import java.util.Locale;
 
-public class InterpretPython extends Executor implements ReadOnlyExecutionInput {
+public class InterpretPython extends Executor
+        implements ReadOnlyExecutionInput, BlockingExecution, NonDeterministicExecution {
     private volatile PythonCaller pythonCaller = null;
 
     public InterpretPython() {
@@ -117,6 +117,7 @@ public final class UseSubChain extends FileOperation {
     private boolean overrideBehaviour = false;
     private boolean multithreading = false;
     private boolean executeAll = false;
+    private boolean inline = false;
 
     private ExecutorSpecification chainExecutorSpecification = null;
 
@@ -205,6 +206,23 @@ public final class UseSubChain extends FileOperation {
         return this;
     }
 
+    public boolean isInline() {
+        return inline;
+    }
+
+    /**
+     * Sets whether the blocks of the loaded chains, calling other sub-chains, should be replaced
+     * with the blocks of these sub-chains: see {@link Chain#inlineSubChain(ChainBlock, Chain)}.
+     * Only sub-chains, that are already registered while loading the chain, can be inlined.
+     *
+     * @param inline whether the sub-chains should be inlined.
+     * @return a reference to this object.
+     */
+    public UseSubChain setInline(boolean inline) {
+        this.inline = inline;
+        return this;
+    }
+
     public ExecutorSpecification chainExecutorSpecification() {
         return chainExecutorSpecification;
     }
@@ -421,10 +439,12 @@ public final class UseSubChain extends FileOperation {
             chain.setMultithreading(multithreading);
             chain.setExecuteAll(executeAll);
         }
-        SUB_CHAIN_LOADER.registerWorker(
-                sessionId,
-                buildSubChainSpecificationAndExecuteLoadingTimeWithoutInputs(chain),
-                chain);
+        final ExecutorSpecification specification = buildSubChainSpecificationAndExecuteLoadingTimeWithoutInputs(chain);
+        if (inline) {
+            inlineSubChains(chain, sessionId);
+            // - after executing loading-time blocks: they can register the used sub-chains
+        }
+        SUB_CHAIN_LOADER.registerWorker(sessionId, specification, chain);
         loadedChainsCount.incrementAndGet();
         return chain;
     }
@@ -577,6 +597,45 @@ public final class UseSubChain extends FileOperation {
                 name, folder, (t2 - t1) * 1e-6));
     }
 
+    private static void inlineSubChains(Chain chain, String sessionId) {
+        final Deque<InlinedCall> queue = new ArrayDeque<>();
+        final Set<String> mainChain = Set.of(chain.id());
+        chain.getAllBlocks().values().forEach(block -> queue.add(new InlinedCall(block, mainChain)));
+        int count = 0;
+        while (!queue.isEmpty()) {
+            final InlinedCall call = queue.poll();
+            final ChainBlock block = call.block();
+            final Chain subChain = SUB_CHAIN_LOADER.registeredWorkerOrNull(sessionId, block.getExecutorId());
+            if (subChain == null
+                    || call.callers().contains(subChain.id())
+                    // - recursive call: inlining is impossible
+                    || getMainChainSettingsInformation(subChain) != null
+                    // - chain settings are built by InterpretSubChain executor
+                    || !isDoingAction(block)) {
+                continue;
+            }
+            if (chain.inlineSubChain(block, subChain)) {
+                count++;
+                final Set<String> callers = new HashSet<>(call.callers());
+                callers.add(subChain.id());
+                final String prefix = block.getId() + "/";
+                for (ChainBlock added : chain.getAllBlocks().values()) {
+                    if (added.getId().startsWith(prefix)) {
+                        queue.add(new InlinedCall(added, callers));
+                        // - the inlined sub-chain can also call other sub-chains
+                    }
+                }
+            }
+        }
+        final int inlined = count;
+        LOG.log(System.Logger.Level.DEBUG, () -> "Inlined " + inlined + " sub-chain calls into " + chain);
+    }
+
+    private static boolean isDoingAction(ChainBlock block) {
+        final ChainParameter parameter = block.getParameter(DO_ACTION_NAME);
+        return parameter == null || !"false".equalsIgnoreCase(parameter.toScalar());
+    }
+
     private static String additionalChainInformation(Optional<Chain> chain) {
         if (chain.isEmpty()) {
             return " " + RECURSIVE_LOADING_BLOCKED_MESSAGE;
@@ -637,4 +696,7 @@ public final class UseSubChain extends FileOperation {
         }
         return null;
     }
+
+    private record InlinedCall(ChainBlock block, Set<String> callers) {
+    }
 }
@@ -26,6 +26,7 @@ package net.algart.executors.modules.core.logic.compiler.subchains.interpreters;
 
 import jakarta.json.JsonObject;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.chains.Chain;
 import net.algart.executors.api.chains.MultiChain;
@@ -44,7 +45,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
-public final class InterpretMultiChain extends Executor implements ReadOnlyExecutionInput {
+public final class InterpretMultiChain extends Executor implements ReadOnlyExecutionInput, NonDeterministicExecution {
     public static final String SETTINGS = SettingsSpecification.SETTINGS;
 
     private volatile MultiChain multiChain = null;
@@ -120,7 +121,16 @@ public final class InterpretMultiChain extends Executor implements ReadOnlyExecu
             t3 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
             MultiChain.setSettings(selectedChainSettingsString, selectedChain);
             t4 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
+            final SubChainExecutionEvent event = new SubChainExecutionEvent();
+            event.begin();
             selectedChain.executeNecessary(this);
+            if (event.shouldCommit()) {
+                event.chainId = selectedChain.id();
+                event.chainName = selectedChain.name();
+                event.multiChainName = multiChain.name();
+                event.executorId = getExecutorId();
+                event.commit();
+            }
             t5 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
             selectedChain.writeOutputPortsToExecutor(this);
             t6 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
@@ -131,6 +141,8 @@ public final class InterpretMultiChain extends Executor implements ReadOnlyExecu
         timing.updatePassingData(t3 - t2 + t6 - t5);
         timing.updateExecution(t5 - t4);
         timing.updateSummary(t7 - t1);
+        timing.updateCpuTime(selectedChain.lastExecutionCpuTime());
+        timing.updateAllocatedBytes(selectedChain.lastExecutionAllocatedBytes());
         if (timingNumberOfCalls > 0 &&
                 parameters().getBoolean(UseMultiChain.LOG_TIMING_NAME, UseSubChain.LOG_TIMING_DEFAULT)) {
             timing.analyse();
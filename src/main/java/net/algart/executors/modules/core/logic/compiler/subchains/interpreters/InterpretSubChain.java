@@ -26,9 +26,11 @@ package net.algart.executors.modules.core.logic.compiler.subchains.interpreters;
 
 import jakarta.json.JsonObject;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.chains.Chain;
 import net.algart.executors.api.chains.ChainBlock;
+import net.algart.executors.api.chains.ChainPool;
 import net.algart.executors.api.data.Port;
 import net.algart.executors.api.data.SScalar;
 import net.algart.executors.api.settings.SettingsCombiner;
@@ -47,11 +49,18 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public final class InterpretSubChain extends Executor implements ReadOnlyExecutionInput {
+public final class InterpretSubChain extends Executor
+        implements ReadOnlyExecutionInput, NonDeterministicExecution {
+    // - Not BlockingExecution: the blocks of the sub-chain are executed by the current thread
+    // (and its helpers), so, it is usually CPU-bound work;
+    // NonDeterministicExecution: the sub-chain can contain any blocks, including blocks with side effects
+    // (but the sub-chain can use memoization for its own blocks)
     public static final String SETTINGS = SettingsSpecification.SETTINGS;
 
     private volatile Chain chain = null;
+    private final AtomicBoolean chainInUse = new AtomicBoolean(false);
     private final FunctionTiming timing = FunctionTiming.newDisabledInstance();
 
     public InterpretSubChain() {
@@ -62,13 +71,35 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
     public void process() {
         // UseSubChain.useSystemSubChainsPath(getSessionId(), true);
         // - it was incorrect solution
-        long t1 = System.nanoTime(), t2, t3, t4, t5, t6, t7, t8;
+        final long t1 = System.nanoTime();
         final boolean doAction = parameters().getBoolean(UseSubChain.DO_ACTION_NAME, true);
         if (!doAction) {
             skipAction(this);
             return;
         }
-        final Chain chain = chain();
+        if (chainInUse.compareAndSet(false, true)) {
+            // - usual case: this executor uses its own chain copy, which keeps the state of its blocks
+            // (counters, positions in files, etc.) between calls, like in any other chain
+            try {
+                process(chain(), t1);
+            } finally {
+                chainInUse.set(false);
+            }
+        } else {
+            // - re-entering while the own copy is executed (simultaneous calls or recursion):
+            // the call uses a temporary copy with its own space for data, like activates for usual procedures
+            final ChainPool pool = chainPool();
+            final Chain chain = pool.borrow();
+            try {
+                process(chain, t1);
+            } finally {
+                pool.giveBack(chain);
+            }
+        }
+    }
+
+    private void process(Chain chain, long t1) {
+        long t2, t3, t4, t5, t6, t7, t8;
         t2 = System.nanoTime();
         status().setExecutorSimpleClassName(chain.name() == null ? "sub-chain" : chain.name());
         final JsonObject inputSettings = !hasInputPort(SETTINGS) ? Jsons.newEmptyJson() :
@@ -98,7 +129,15 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
             t4 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
             setChainSettings(chain, inputSettings);
             t5 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
+            final SubChainExecutionEvent event = new SubChainExecutionEvent();
+            event.begin();
             chain.executeNecessary(this);
+            if (event.shouldCommit()) {
+                event.chainId = chain.id();
+                event.chainName = chain.name();
+                event.executorId = getExecutorId();
+                event.commit();
+            }
             t6 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
             chain.writeOutputPortsToExecutor(this);
             t7 = timingNumberOfCalls > 0 ? System.nanoTime() : 0;
@@ -109,6 +148,8 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
         timing.updatePassingData(t4 - t3 + t7 - t6);
         timing.updateExecution(t6 - t5);
         timing.updateSummary(t8 - t1);
+        timing.updateCpuTime(chain.lastExecutionCpuTime());
+        timing.updateAllocatedBytes(chain.lastExecutionAllocatedBytes());
         if (timingNumberOfCalls > 0 &&
                 parameters().getBoolean(UseSubChain.LOG_TIMING_NAME, UseSubChain.LOG_TIMING_DEFAULT)) {
             final String name = chain.name() == null ? "" : " \"" + chain.name() + "\"";
@@ -120,6 +161,7 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
                             "%.3f mcs setting parameters, %.3f mcs loading inputs, %.3f mcs set chain settings, " +
                             "%.3f mcs process, " +
                             "%.3f mcs returning outputs, %.3f mcs freeing%n" +
+                            "  %.3f ms CPU time and %.3f MB allocated by all blocks%n" +
                             "  Sub-chain ID: %s (identity %X)%n" +
                             "  Sub-chain specification file: %s%n%s" +
                             "  All%s, %s",
@@ -131,6 +173,7 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
                     (t3 - t2) * 1e-3, (t4 - t3) * 1e-3, (t5 - t4) * 1e-3,
                     (t6 - t5) * 1e-3,
                     (t7 - t6) * 1e-3, (t8 - t7) * 1e-3,
+                    chain.lastExecutionCpuTime() * 1e-6, chain.lastExecutionAllocatedBytes() / 1048576.0,
                     chain.contextId(), System.identityHashCode(chain),
                     file == null ? "n/a" : "\"" + file + "\"",
                     chain.timingInfo(),
@@ -138,17 +181,6 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
         }
     }
 
-    @Override
-    public void close() {
-        Chain chain = this.chain;
-        if (chain != null) {
-            this.chain = null;
-            // - for a case of recursive calls
-            chain.freeResources();
-        }
-        super.close();
-    }
-
     @Override
     public String visibleOutputPortName() {
         String result = parameters().getString(UseSubChain.VISIBLE_RESULT_PARAMETER_NAME, null);
@@ -163,6 +195,25 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
         return result;
     }
 
+    @Override
+    public void close() {
+        Chain chain = this.chain;
+        if (chain != null) {
+            this.chain = null;
+            // - for a case of recursive calls
+            chain.freeResources();
+        }
+        super.close();
+    }
+
+    /**
+     * Returns a clean copy of the registered sub-chain, owned by this executor: it is created while
+     * the first call of this method and freed by {@link #close()}.
+     * {@link #process()} executes this copy; only if it is already being executed by another thread,
+     * {@link #process()} borrows a temporary copy from {@link #chainPool()}.
+     *
+     * @return the sub-chain copy, owned by this executor.
+     */
     public Chain chain() {
         Chain chain = this.chain;
         if (chain == null) {
@@ -173,6 +224,17 @@ public final class InterpretSubChain extends Executor implements ReadOnlyExecuti
         return chain;
     }
 
+    public ChainPool chainPool() {
+        return registeredChainPool(getSessionId(), getExecutorId());
+    }
+
+    public static ChainPool registeredChainPool(String sessionId, String executorId) {
+        Objects.requireNonNull(sessionId, "Cannot find sub-chain worker: session ID is not set");
+        Objects.requireNonNull(executorId, "Cannot find sub-chain worker: executor ID is not set");
+        return UseSubChain.subChainLoader().registeredWorker(sessionId, executorId).pool();
+        // - the pool is closed together with the registered chain, when it is replaced by a new worker
+    }
+
     public static Chain registeredChain(String sessionId, String executorId) {
         Objects.requireNonNull(sessionId, "Cannot find sub-chain worker: session ID is not set");
         Objects.requireNonNull(executorId, "Cannot find sub-chain worker: executor ID is not set");
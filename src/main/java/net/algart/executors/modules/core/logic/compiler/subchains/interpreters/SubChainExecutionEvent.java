@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.core.logic.compiler.subchains.interpreters;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event, describing one run of a sub-chain by {@link InterpretSubChain}
+ * or of the selected chain variant by {@link InterpretMultiChain}.
+ *
+ * <p>The event is disabled by default: it is recorded only if the recording explicitly enables
+ * <code>net.algart.executors.SubChainExecution</code>.
+ */
+@Name("net.algart.executors.SubChainExecution")
+@Label("Sub-Chain Execution")
+@Category({"AlgART", "Executors"})
+@Description("Execution of a sub-chain or of a multi-chain variant")
+@Enabled(false)
+@StackTrace(false)
+final class SubChainExecutionEvent extends Event {
+    @Label("Chain ID")
+    String chainId;
+
+    @Label("Chain Name")
+    String chainName;
+
+    @Label("Multi-Chain Name")
+    @Description("Name of the multi-chain, if this chain is its selected variant")
+    String multiChainName;
+
+    @Label("Executor ID")
+    @Description("ID of the executor, calling this chain")
+    String executorId;
+}
@@ -26,6 +26,7 @@ package net.algart.executors.modules.core.logic.control;
 
 import net.algart.executors.api.Executor;
 import net.algart.executors.api.data.Port;
+import net.algart.executors.api.data.SScalar;
 import net.algart.executors.modules.core.logic.ConditionStyle;
 
 abstract class AbstractCopyIfRequested extends Executor {
@@ -76,8 +77,8 @@ abstract class AbstractCopyIfRequested extends Executor {
     }
 
     public boolean condition(String portName) {
-        final String conditionString = getInputScalar(portName, true).getValue();
-        return conditionStyle.toBoolean(conditionString, false) != invert;
+        final SScalar condition = getInputScalar(portName, true);
+        return conditionStyle.toBoolean(condition, false) != invert;
     }
 
     static String sPortName(int index) {
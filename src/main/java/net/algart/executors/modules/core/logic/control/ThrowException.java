@@ -26,6 +26,7 @@ package net.algart.executors.modules.core.logic.control;
 
 import net.algart.executors.api.Executor;
 import net.algart.executors.api.HighLevelException;
+import net.algart.executors.api.data.SScalar;
 import net.algart.executors.modules.core.logic.ConditionStyle;
 
 import java.util.function.Function;
@@ -126,7 +127,7 @@ public class ThrowException extends Executor {
     }
 
     public boolean condition() {
-        final String conditionString = getInputScalar(INPUT_CONDITION).getValue();
-        return conditionStyle.toBoolean(conditionString, false) != invert;
+        final SScalar condition = getInputScalar(INPUT_CONDITION);
+        return conditionStyle.toBoolean(condition, false) != invert;
     }
 }
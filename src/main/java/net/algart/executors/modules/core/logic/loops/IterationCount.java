@@ -25,8 +25,9 @@
 package net.algart.executors.modules.core.logic.loops;
 
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 
-public final class IterationCount extends Executor {
+public final class IterationCount extends Executor implements NonDeterministicExecution {
     public static final String OUTPUT_COUNT = "count";
     public static final String OUTPUT_COUNT_1 = "count_1";
     public static final String OUTPUT_IS_FIRST = "is_first";
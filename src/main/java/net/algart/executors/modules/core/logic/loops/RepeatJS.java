@@ -32,9 +32,10 @@ import net.algart.bridges.graalvm.api.GraalAPI;
 import net.algart.bridges.graalvm.api.GraalSafety;
 import net.algart.executors.api.ExecutionBlock;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import org.graalvm.polyglot.Value;
 
-public final class RepeatJS extends Executor {
+public final class RepeatJS extends Executor implements NonDeterministicExecution {
     public static final String FIRST_ITERATION_VARIABLE = "isFirst";
     public static final String INPUT_A = "a";
     public static final String INPUT_B = "b";
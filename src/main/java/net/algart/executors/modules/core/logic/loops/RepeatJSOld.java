@@ -28,13 +28,14 @@ import net.algart.bridges.standard.JavaScriptContextContainer;
 import net.algart.bridges.standard.JavaScriptPerformer;
 import net.algart.executors.api.ExecutionBlock;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.data.SNumbers;
 import net.algart.executors.api.data.SScalar;
 
 import javax.script.ScriptEngine;
 
 @Deprecated
-public final class RepeatJSOld extends Executor {
+public final class RepeatJSOld extends Executor implements NonDeterministicExecution {
     public static final String FIRST_ITERATION_VARIABLE = "isFirst";
     public static final String INPUT_A = "a";
     public static final String INPUT_B = "b";
@@ -25,9 +25,11 @@
 package net.algart.executors.modules.core.logic.loops;
 
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
+import net.algart.executors.api.data.SScalar;
 import net.algart.executors.modules.core.logic.ConditionStyle;
 
-public final class RepeatWhile extends Executor {
+public final class RepeatWhile extends Executor implements NonDeterministicExecution {
     public static final String INPUT_CONDITION = "while";
     public static final String OUTPUT_IS_FIRST = "is_first";
     public static final String OUTPUT_IS_LAST = "is_last";
@@ -105,12 +107,12 @@ public final class RepeatWhile extends Executor {
         getScalar(S).exchange(getInputScalar(S, true));
         getNumbers(X).exchange(getInputNumbers(X, true));
         getMat(M).exchange(getInputMat(M, true));
-        final String conditionString = getInputScalar(INPUT_CONDITION, true).getValue();
-        if (conditionString == null && maxIterationsCount == null) {
+        final SScalar condition = getInputScalar(INPUT_CONDITION, true);
+        if (!condition.isInitialized() && maxIterationsCount == null) {
             throw new IllegalArgumentException("Both input condition and maximal iterations count " +
                     "are not specified: infinite loop!");
         }
-        whileCondition = conditionStyle.toBoolean(conditionString, true);
+        whileCondition = conditionStyle.toBoolean(condition, true);
         if (invertCondition) {
             whileCondition = !whileCondition;
         }
@@ -30,6 +30,7 @@ import net.algart.bridges.graalvm.GraalSourceContainer;
 import net.algart.bridges.graalvm.api.GraalAPI;
 import net.algart.bridges.graalvm.api.GraalSafety;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.data.Port;
 import net.algart.executors.modules.core.common.io.PathPropertyReplacement;
 import org.graalvm.polyglot.Value;
@@ -38,7 +39,7 @@ import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public final class CallJSModule extends Executor {
+public final class CallJSModule extends Executor implements NonDeterministicExecution {
     private static final List<String> PARAMETERS_NAMES = List.of(
             "a", "b", "c", "d", "e", "f", "p", "q", "r", "s", "t", "u");
     private static final List<String> INPUTS_NAMES = List.of(
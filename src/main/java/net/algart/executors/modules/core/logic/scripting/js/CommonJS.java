@@ -32,13 +32,14 @@ import net.algart.bridges.graalvm.api.GraalSafety;
 import net.algart.bridges.standard.JavaScriptContextContainer;
 import net.algart.executors.api.ExecutionBlock;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.system.ExecutorNotFoundException;
 import net.algart.executors.api.system.InstantiationMode;
 import org.graalvm.polyglot.Value;
 
 import java.util.Locale;
 
-public final class CommonJS extends Executor {
+public final class CommonJS extends Executor implements NonDeterministicExecution {
     public static final String CALLABLE_EXECUTOR_FACTORY_VARIABLE = "executorFactory";
     public static final String CALLABLE_EXECUTOR_VARIABLE_1_ALT = "exec";
     public static final String CALLABLE_EXECUTOR_VARIABLE_1 = "exec1";
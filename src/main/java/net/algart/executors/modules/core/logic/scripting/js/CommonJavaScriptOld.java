@@ -28,6 +28,7 @@ import net.algart.bridges.standard.JavaScriptContextContainer;
 import net.algart.bridges.standard.JavaScriptPerformer;
 import net.algart.executors.api.ExecutionBlock;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.data.SMat;
 import net.algart.executors.api.data.SNumbers;
 import net.algart.executors.api.data.SScalar;
@@ -38,7 +39,7 @@ import javax.script.ScriptEngine;
 import java.util.Locale;
 
 @Deprecated
-public final class CommonJavaScriptOld extends Executor {
+public final class CommonJavaScriptOld extends Executor implements NonDeterministicExecution {
     public static final String CALLABLE_EXECUTOR_FACTORY_VARIABLE = "executorFactory";
     public static final String CALLABLE_EXECUTOR_VARIABLE_1_ALT = "exec";
     public static final String CALLABLE_EXECUTOR_VARIABLE_1 = "exec1";
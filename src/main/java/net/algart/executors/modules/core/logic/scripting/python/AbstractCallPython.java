@@ -30,7 +30,9 @@ import net.algart.bridges.jep.additions.AtomicPyObject;
 import net.algart.bridges.jep.additions.JepInterpreterKind;
 import net.algart.bridges.jep.api.JepAPI;
 import net.algart.bridges.jep.api.JepPlatforms;
+import net.algart.executors.api.BlockingExecution;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.data.Port;
 
 import java.util.*;
@@ -38,7 +40,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 // Should be public for normal using setters in PropertySetter
-public abstract class AbstractCallPython extends Executor {
+public abstract class AbstractCallPython extends Executor implements BlockingExecution, NonDeterministicExecution {
     private static final List<String> PARAMETERS_NAMES = List.of(
             "a", "b", "c", "d", "e", "f", "p", "q", "r", "s", "t", "u");
     private static final List<String> INPUTS_NAMES = List.of(
@@ -26,6 +26,7 @@ package net.algart.executors.modules.core.matrices.io;
 
 import net.algart.arrays.*;
 import net.algart.executors.api.LogLevel;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.modules.core.common.io.FileOperation;
 import net.algart.executors.modules.core.common.matrices.MultiMatrixToScalar;
 import net.algart.executors.modules.core.scalars.io.WriteScalar;
@@ -35,7 +36,7 @@ import net.algart.multimatrix.MultiMatrix;
 import java.util.List;
 import java.util.Locale;
 
-public final class PrintSubMatrix extends MultiMatrixToScalar {
+public final class PrintSubMatrix extends MultiMatrixToScalar implements NonDeterministicExecution {
     private static final int MAX_STRING_LENGTH = 50000;
 
     private long startX = 0;
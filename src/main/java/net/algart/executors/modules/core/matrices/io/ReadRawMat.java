@@ -0,0 +1,257 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.core.matrices.io;
+
+import net.algart.arrays.Arrays;
+import net.algart.arrays.TooLargeArrayException;
+import net.algart.executors.api.ReadOnlyExecutionInput;
+import net.algart.executors.api.data.ConvertibleMappedMatrix;
+import net.algart.executors.api.data.SMat;
+import net.algart.executors.modules.core.common.io.FileOperation;
+import net.algart.executors.modules.core.common.matrices.MultiMatrixGenerator;
+
+import java.io.FileNotFoundException;
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+public final class ReadRawMat extends FileOperation implements ReadOnlyExecutionInput {
+    private boolean fileExistenceRequired = true;
+    private long dimX = 1;
+    private long dimY = 1;
+    private int numberOfChannels = 1;
+    private Class<?> elementType = byte.class;
+    private long offset = 0;
+    private boolean memoryMapping = true;
+
+    public ReadRawMat() {
+        addFileOperationPorts();
+        addInputMat(DEFAULT_INPUT_PORT);
+        addOutputMat(DEFAULT_OUTPUT_PORT);
+    }
+
+    public static ReadRawMat getInstance() {
+        return new ReadRawMat();
+    }
+
+    public static ReadRawMat getSecureInstance() {
+        final ReadRawMat result = new ReadRawMat();
+        result.setSecure(true);
+        return result;
+    }
+
+    @Override
+    public ReadRawMat setFile(String file) {
+        super.setFile(file);
+        return this;
+    }
+
+    @Override
+    public ReadRawMat setFile(Path file) {
+        super.setFile(file);
+        return this;
+    }
+
+    public boolean isFileExistenceRequired() {
+        return fileExistenceRequired;
+    }
+
+    public ReadRawMat setFileExistenceRequired(boolean fileExistenceRequired) {
+        this.fileExistenceRequired = fileExistenceRequired;
+        return this;
+    }
+
+    public long getDimX() {
+        return dimX;
+    }
+
+    public ReadRawMat setDimX(long dimX) {
+        this.dimX = positive(dimX);
+        return this;
+    }
+
+    public long getDimY() {
+        return dimY;
+    }
+
+    public ReadRawMat setDimY(long dimY) {
+        this.dimY = positive(dimY);
+        return this;
+    }
+
+    public int getNumberOfChannels() {
+        return numberOfChannels;
+    }
+
+    public ReadRawMat setNumberOfChannels(int numberOfChannels) {
+        this.numberOfChannels = positive(numberOfChannels);
+        return this;
+    }
+
+    public Class<?> getElementType() {
+        return elementType;
+    }
+
+    public ReadRawMat setElementType(Class<?> elementType) {
+        this.elementType = nonNull(elementType, "element type");
+        return this;
+    }
+
+    public ReadRawMat setElementType(String elementType) {
+        return setElementType(MultiMatrixGenerator.elementType(elementType));
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public ReadRawMat setOffset(long offset) {
+        this.offset = nonNegative(offset);
+        return this;
+    }
+
+    public boolean isMemoryMapping() {
+        return memoryMapping;
+    }
+
+    public ReadRawMat setMemoryMapping(boolean memoryMapping) {
+        this.memoryMapping = memoryMapping;
+        return this;
+    }
+
+    @Override
+    public void process() {
+        SMat input = getInputMat(defaultInputPortName(), true);
+        if (input.isInitialized()) {
+            logDebug(() -> "Copying " + input);
+            getMat().setTo(input);
+        } else {
+            final SMat result = readRaw();
+            if (result != null) {
+                getMat().exchange(result);
+                // - no sense to clone: the result is a new object (and may be mapped file)
+            } // in another case, stay non-initialized output container
+        }
+    }
+
+    public SMat readRaw() {
+        final Path file = completeFilePath();
+        try {
+            if (!Files.exists(file)) {
+                if (fileExistenceRequired) {
+                    throw new FileNotFoundException("File not found: " + file);
+                }
+                return null;
+            }
+            logDebug(() -> (memoryMapping ? "Mapping" : "Reading") + " raw matrix "
+                    + numberOfChannels + "x" + dimX + "x" + dimY + " (" + elementType.getSimpleName() + ") from "
+                    + file.toAbsolutePath());
+            return readRaw(file, offset, new long[]{dimX, dimY}, numberOfChannels, elementType, memoryMapping);
+        } catch (IOException e) {
+            throw new IOError(e);
+        }
+    }
+
+    /**
+     * Reads (or maps) the matrix from the raw file, containing interleaved channels
+     * (BGR/BGRA order for color matrices) in the native byte order, as in {@link SMat#getByteBuffer()}.
+     *
+     * <p>If <code>memoryMapping</code> is set, the file region is mapped in
+     * {@link FileChannel.MapMode#PRIVATE PRIVATE} mode: the data are loaded lazily, and possible
+     * changes of the matrix in memory are never written back to the file.
+     * If the file is not writable, it is mapped in {@link FileChannel.MapMode#READ_ONLY READ_ONLY} mode;
+     * then any attempt to modify the matrix elements leads to <code>ReadOnlyBufferException</code>.
+     *
+     * @param file             raw file.
+     * @param offset           position of the matrix data in the file (for example, size of some header).
+     * @param dimensions       matrix dimensions.
+     * @param numberOfChannels number of channels.
+     * @param elementType      element type.
+     * @param memoryMapping    whether the file should be mapped instead of reading into memory.
+     * @return new matrix.
+     * @throws IOException in a case of I/O error, in particular, if the file is too short.
+     */
+    public static SMat readRaw(
+            Path file,
+            long offset,
+            long[] dimensions,
+            int numberOfChannels,
+            Class<?> elementType,
+            boolean memoryMapping) throws IOException {
+        Objects.requireNonNull(file, "Null file");
+        Objects.requireNonNull(dimensions, "Null dimensions");
+        Objects.requireNonNull(elementType, "Null elementType");
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset " + offset);
+        }
+        final SMat.Depth depth = SMat.Depth.of(elementType);
+        final long numberOfElements = Arrays.longMul(Arrays.longMul(dimensions), numberOfChannels);
+        final long size = numberOfElements == Long.MIN_VALUE ? Long.MIN_VALUE :
+                depth == SMat.Depth.BIT ?
+                        (numberOfElements + 7) >>> 3 :
+                        Arrays.longMul(numberOfElements, depth.bitsPerElement() >>> 3);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new TooLargeArrayException("Too large raw matrix " + numberOfChannels + "x"
+                    + java.util.Arrays.toString(dimensions) + ": it cannot occupy >= 2^31 bytes");
+        }
+        final boolean privateMapping = memoryMapping && Files.isWritable(file);
+        // - PRIVATE mode requires a channel, opened for writing, though the file will never be modified
+        final FileChannel channel = privateMapping ?
+                FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+                FileChannel.open(file, StandardOpenOption.READ);
+        try (channel) {
+            if (channel.size() < offset + size) {
+                throw new IOException("File " + file + " is too short (" + channel.size() + " bytes) to contain "
+                        + size + " bytes of raw matrix at position " + offset);
+            }
+            final SMat result = new SMat();
+            if (memoryMapping) {
+                final FileChannel.MapMode mode = privateMapping ?
+                        FileChannel.MapMode.PRIVATE :
+                        FileChannel.MapMode.READ_ONLY;
+                result.setAll(dimensions, depth, numberOfChannels,
+                        new ConvertibleMappedMatrix(channel.map(mode, offset, size), mode, file));
+                // - the mapping stays valid after closing the channel
+            } else {
+                final ByteBuffer byteBuffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+                while (byteBuffer.hasRemaining()) {
+                    if (channel.read(byteBuffer, offset + byteBuffer.position()) < 0) {
+                        throw new IOException("Unexpected end of file " + file);
+                    }
+                }
+                byteBuffer.rewind();
+                result.setAll(dimensions, depth, numberOfChannels, byteBuffer, false);
+            }
+            return result;
+        }
+    }
+}
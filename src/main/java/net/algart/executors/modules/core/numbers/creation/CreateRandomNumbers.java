@@ -26,6 +26,7 @@ package net.algart.executors.modules.core.numbers.creation;
 
 import net.algart.arrays.TooLargeArrayException;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.data.SNumbers;
 
@@ -34,7 +35,7 @@ import java.util.Locale;
 import java.util.SplittableRandom;
 import java.util.random.RandomGenerator;
 
-public final class CreateRandomNumbers extends Executor implements ReadOnlyExecutionInput {
+public final class CreateRandomNumbers extends Executor implements ReadOnlyExecutionInput, NonDeterministicExecution {
     private int blockLength = 1;
     private int numberOfBlocks = 100;
     private Class<?> elementType = float.class;
@@ -25,13 +25,14 @@
 package net.algart.executors.modules.core.numbers.io;
 
 import net.algart.executors.api.LogLevel;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.data.SNumbers;
 import net.algart.executors.api.data.SScalar;
 import net.algart.executors.modules.core.common.io.FileOperation;
 import net.algart.executors.modules.core.scalars.conversions.JoinNumbersToScalar;
 import net.algart.executors.modules.core.scalars.io.PrintScalar;
 
-public final class PrintNumbers extends JoinNumbersToScalar {
+public final class PrintNumbers extends JoinNumbersToScalar implements NonDeterministicExecution {
     public static final String S = "s";
     public static final String X = "x";
     public static final String M = "m";
@@ -25,6 +25,10 @@
 package net.algart.executors.modules.core.numbers.io;
 
 import jakarta.json.JsonObject;
+import net.algart.arrays.Arrays;
+import net.algart.arrays.LargeMemoryModel;
+import net.algart.arrays.PNumberArray;
+import net.algart.arrays.UpdatablePNumberArray;
 import net.algart.executors.api.ExecutionVisibleResultsInformation;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.data.SNumbers;
@@ -48,11 +52,14 @@ public final class ReadRawNumbers extends FileOperation implements ReadOnlyExecu
     public static final String OUTPUT_COLUMN_NAMES = "column_names";
     public static final String OUTPUT_COLUMN_INDEXES = "column_indexes";
 
+    private static final int LARGE_READING_CHUNK = 16 * 1024 * 1024;
+
     private boolean fileExistenceRequired = true;
     private int blockLength = 1;
     private Class<?> elementType = float.class;
     private WriteRawNumbers.ByteOrder byteOrder = WriteRawNumbers.ByteOrder.BIG_ENDIAN;
     private boolean readMetadataFile = true;
+    private boolean memoryMapping = false;
 
     public ReadRawNumbers() {
         addFileOperationPorts();
@@ -133,6 +140,15 @@ public final class ReadRawNumbers extends FileOperation implements ReadOnlyExecu
         return this;
     }
 
+    public boolean isMemoryMapping() {
+        return memoryMapping;
+    }
+
+    public ReadRawNumbers setMemoryMapping(boolean memoryMapping) {
+        this.memoryMapping = memoryMapping;
+        return this;
+    }
+
     @Override
     public void process() {
         SNumbers input = getInputNumbers(defaultInputPortName(), true);
@@ -142,7 +158,8 @@ public final class ReadRawNumbers extends FileOperation implements ReadOnlyExecu
         } else {
             final SNumbers result = readRaw();
             if (result != null) {
-                getNumbers().setTo(result);
+                getNumbers().exchange(result);
+                // - no sense to clone: the result is a new object (and may be mapped file)
             } // in another case, stay non-initialized output container
         }
     }
@@ -173,6 +190,16 @@ public final class ReadRawNumbers extends FileOperation implements ReadOnlyExecu
                     getScalar(OUTPUT_COLUMN_INDEXES).setTo(Jsons.toPrettyString(columnIndexes));
                 }
             }
+            if (memoryMapping && Files.size(rawFile) > Integer.MAX_VALUE) {
+                // - smaller files are read into usual Java arrays: large SNumbers
+                // are not supported by most executors, using int indexing
+                logDebug(() -> "Mapping number array from " + rawFile.toAbsolutePath());
+                try {
+                    return mapRaw(rawFile, metadata);
+                } catch (RuntimeException e) {
+                    throw new IOException("Cannot map numbers from file " + rawFile, e);
+                }
+            }
             logDebug(() -> "Reading number array from " + rawFile.toAbsolutePath());
             try (final FileInputStream stream = new FileInputStream(rawFile.toFile())) {
                 SNumbers result;
@@ -198,6 +225,44 @@ public final class ReadRawNumbers extends FileOperation implements ReadOnlyExecu
                         WriteRawNumbers.getMetadataBlockLength(metadata));
     }
 
+    public SNumbers mapRaw(Path file, JsonObject metadata) throws IOException {
+        return metadata == null ?
+                mapRaw(file, byteOrder.order(), elementType, blockLength) :
+                mapRaw(
+                        file,
+                        WriteRawNumbers.getMetadataByteOrder(metadata),
+                        WriteRawNumbers.getMetadataElementType(metadata),
+                        WriteRawNumbers.getMetadataBlockLength(metadata));
+    }
+
+    /**
+     * Maps the raw file into a {@link SNumbers#isLarge() large} read-only number array without reading it:
+     * the data are loaded lazily by {@link LargeMemoryModel}, only when they are really accessed.
+     * The file size may be greater than 2<sup>31</sup> bytes.
+     *
+     * @param file        raw file.
+     * @param byteOrder   byte order of the file.
+     * @param elementType element type.
+     * @param blockLength block length.
+     * @return new large number array, mapped to the file.
+     * @throws IOException in a case of I/O error, in particular, if the file size is not divisible
+     *                     by the size of one block.
+     */
+    public static SNumbers mapRaw(
+            Path file,
+            ByteOrder byteOrder,
+            Class<?> elementType,
+            int blockLength) throws IOException {
+        Objects.requireNonNull(file, "Null file");
+        Objects.requireNonNull(byteOrder, "Null byteOrder");
+        Objects.requireNonNull(elementType, "Null elementType");
+        final long size = Files.size(file);
+        checkFileSize(size, elementType, blockLength);
+        final PNumberArray array = (PNumberArray) LargeMemoryModel.getInstance().asArray(
+                file.toFile(), elementType, 0, size, byteOrder);
+        return new SNumbers().setToLarge(array, blockLength);
+    }
+
     public static SNumbers readRaw(
             FileInputStream inputStream,
             ByteOrder byteOrder,
@@ -209,7 +274,7 @@ public final class ReadRawNumbers extends FileOperation implements ReadOnlyExecu
         final FileChannel channel = inputStream.getChannel();
         final long size = channel.size();
         if (size > Integer.MAX_VALUE) {
-            throw new IOException("Cannot read too large file to SNumbers: it's size " + size + " >= 2^31");
+            return readLargeRaw(channel, size, byteOrder, elementType, blockLength);
         }
         ByteBuffer byteBuffer = ByteBuffer.allocateDirect((int) size);
         byteBuffer.order(byteOrder);
@@ -217,6 +282,58 @@ public final class ReadRawNumbers extends FileOperation implements ReadOnlyExecu
         return new SNumbers().setTo(byteBuffer, elementType, blockLength);
     }
 
+    // Reads files with 2^31 or more bytes into large SNumbers, stored outside the Java heap
+    private static SNumbers readLargeRaw(
+            FileChannel channel,
+            long size,
+            ByteOrder byteOrder,
+            Class<?> elementType,
+            int blockLength) throws IOException {
+        final int bytesPerElement = checkFileSize(size, elementType, blockLength);
+        final SNumbers result = SNumbers.largeZeros(elementType, size / bytesPerElement / blockLength, blockLength);
+        final UpdatablePNumberArray array = (UpdatablePNumberArray) result.asNumberArray();
+        final int chunkLength = LARGE_READING_CHUNK / bytesPerElement;
+        final ByteBuffer chunk = ByteBuffer.allocateDirect(chunkLength * bytesPerElement).order(byteOrder);
+        final Object javaArray = java.lang.reflect.Array.newInstance(elementType, chunkLength);
+        for (long position = 0, length = array.length(); position < length; ) {
+            final int count = (int) Math.min(chunkLength, length - position);
+            chunk.clear().limit(count * bytesPerElement);
+            while (chunk.hasRemaining()) {
+                if (channel.read(chunk) < 0) {
+                    throw new IOException("Unexpected end of file at position " + channel.position());
+                }
+            }
+            chunk.flip();
+            if (elementType == byte.class) {
+                chunk.get((byte[]) javaArray, 0, count);
+            } else if (elementType == short.class) {
+                chunk.asShortBuffer().get((short[]) javaArray, 0, count);
+            } else if (elementType == int.class) {
+                chunk.asIntBuffer().get((int[]) javaArray, 0, count);
+            } else if (elementType == long.class) {
+                chunk.asLongBuffer().get((long[]) javaArray, 0, count);
+            } else if (elementType == float.class) {
+                chunk.asFloatBuffer().get((float[]) javaArray, 0, count);
+            } else if (elementType == double.class) {
+                chunk.asDoubleBuffer().get((double[]) javaArray, 0, count);
+            } else {
+                throw new AssertionError("Unsupported element type " + elementType);
+            }
+            array.setData(position, javaArray, 0, count);
+            position += count;
+        }
+        return result;
+    }
+
+    private static int checkFileSize(long size, Class<?> elementType, int blockLength) throws IOException {
+        final int bytesPerElement = Arrays.bytesPerElement(elementType);
+        if (size % ((long) bytesPerElement * blockLength) != 0) {
+            throw new IOException("Illegal data: file size " + size + " is not divisible by "
+                    + bytesPerElement + " * block length " + blockLength);
+        }
+        return bytesPerElement;
+    }
+
     @Override
     public ExecutionVisibleResultsInformation visibleResultsInformation() {
         return super.visibleResultsInformation().addPorts(getOutputPort(OUTPUT_COLUMN_NAMES));
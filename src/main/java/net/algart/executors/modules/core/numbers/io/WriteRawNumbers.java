@@ -25,6 +25,10 @@
 package net.algart.executors.modules.core.numbers.io;
 
 import jakarta.json.*;
+import net.algart.arrays.Arrays;
+import net.algart.arrays.LargeMemoryModel;
+import net.algart.arrays.PNumberArray;
+import net.algart.arrays.UpdatablePArray;
 import net.algart.executors.api.ExecutionVisibleResultsInformation;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.data.Port;
@@ -37,6 +41,8 @@ import net.algart.json.Jsons;
 import java.io.FileOutputStream;
 import java.io.IOError;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -49,6 +55,8 @@ public final class WriteRawNumbers extends WriteFileOperation implements ReadOnl
     public static final String INPUT_COLUMN_NAMES = "column_names";
     public static final String METADATA_FILE_SUFFIX = ".meta";
 
+    private static final int LARGE_WRITING_CHUNK = 16 * 1024 * 1024;
+
     public enum ByteOrder {
         BIG_ENDIAN(java.nio.ByteOrder.BIG_ENDIAN),
         LITTLE_ENDIAN(java.nio.ByteOrder.LITTLE_ENDIAN),
@@ -89,6 +97,7 @@ public final class WriteRawNumbers extends WriteFileOperation implements ReadOnl
     private boolean writeMetadataFile = false;
     private IndexingBase columnsIndexingBaseInMetadata = IndexingBase.ZERO_BASED;
     private String columnNames = "";
+    private boolean memoryMapping = false;
 
     public WriteRawNumbers() {
         addFileOperationPorts();
@@ -187,6 +196,15 @@ public final class WriteRawNumbers extends WriteFileOperation implements ReadOnl
         return this;
     }
 
+    public boolean isMemoryMapping() {
+        return memoryMapping;
+    }
+
+    public WriteRawNumbers setMemoryMapping(boolean memoryMapping) {
+        this.memoryMapping = memoryMapping;
+        return this;
+    }
+
     public String columnNamesOrNull() {
         final String result = columnNames.trim();
         return result.isEmpty() ? null : result;
@@ -228,8 +246,14 @@ public final class WriteRawNumbers extends WriteFileOperation implements ReadOnl
             } else {
                 logDebug(
                         () -> "Writing number array (" + numbers + ") to file " + rawFile.toAbsolutePath());
-                try (final FileOutputStream stream = new FileOutputStream(rawFile.toFile(), appendToExistingFile)) {
-                    writeRaw(stream, numbers);
+                if (memoryMapping) {
+                    final long position = appendToExistingFile && exists ? Files.size(rawFile) : 0;
+                    writeMapped(rawFile, position, numbers, byteOrder.order());
+                } else {
+                    try (final FileOutputStream stream =
+                                 new FileOutputStream(rawFile.toFile(), appendToExistingFile)) {
+                        writeRaw(stream, numbers);
+                    }
                 }
                 if (writeMetadataFile) {
                     String columnNames = getInputScalar(INPUT_COLUMN_NAMES, true).getValue();
@@ -253,7 +277,76 @@ public final class WriteRawNumbers extends WriteFileOperation implements ReadOnl
         Objects.requireNonNull(numbers, "Null numbers");
         Objects.requireNonNull(outputStream, "Null outputStream argument");
         Objects.requireNonNull(numbers, "Null numbers argument");
-        outputStream.getChannel().write(numbers.toByteBuffer(byteOrder.order()));
+        if (numbers.isLarge()) {
+            writeLargeRaw(outputStream.getChannel(), numbers.asNumberArray(), byteOrder.order());
+        } else {
+            outputStream.getChannel().write(numbers.toByteBuffer(byteOrder.order()));
+        }
+    }
+
+    /**
+     * Writes the numbers into the given region of the file through the memory mapping
+     * ({@link LargeMemoryModel}), without intermediate buffers. The file is extended or truncated
+     * to <code>position + (size of numbers in bytes)</code>.
+     * Works also with {@link SNumbers#isLarge() large} number arrays.
+     *
+     * @param file      raw file.
+     * @param position  starting position in the file (usually 0 or the current file size for appending).
+     * @param numbers   numbers to write.
+     * @param byteOrder byte order of the file.
+     * @throws IOException in a case of I/O error.
+     */
+    public static void writeMapped(Path file, long position, SNumbers numbers, java.nio.ByteOrder byteOrder)
+            throws IOException {
+        Objects.requireNonNull(file, "Null file");
+        Objects.requireNonNull(numbers, "Null numbers");
+        Objects.requireNonNull(byteOrder, "Null byteOrder");
+        final PNumberArray source = numbers.asNumberArray();
+        final Class<?> elementType = source.elementType();
+        final UpdatablePArray result = LargeMemoryModel.getInstance().asUpdatableArray(
+                file.toFile(), elementType, position, Arrays.sizeOf(elementType, source.length()), true, byteOrder);
+        try {
+            result.copy(source);
+            result.flushResources(null, false);
+        } finally {
+            result.freeResources(null);
+            // - unmap the file
+        }
+    }
+
+    // Writes large SNumbers (possibly 2^31 or more bytes) by chunks, without allocating Java arrays for all data
+    private static void writeLargeRaw(FileChannel channel, PNumberArray array, java.nio.ByteOrder byteOrder)
+            throws IOException {
+        final Class<?> elementType = array.elementType();
+        final int bytesPerElement = Arrays.bytesPerElement(elementType);
+        final int chunkLength = LARGE_WRITING_CHUNK / bytesPerElement;
+        final ByteBuffer chunk = ByteBuffer.allocateDirect(chunkLength * bytesPerElement).order(byteOrder);
+        final Object javaArray = java.lang.reflect.Array.newInstance(elementType, chunkLength);
+        for (long position = 0, length = array.length(); position < length; ) {
+            final int count = (int) Math.min(chunkLength, length - position);
+            array.getData(position, javaArray, 0, count);
+            chunk.clear();
+            if (elementType == byte.class) {
+                chunk.put((byte[]) javaArray, 0, count);
+            } else if (elementType == short.class) {
+                chunk.asShortBuffer().put((short[]) javaArray, 0, count);
+            } else if (elementType == int.class) {
+                chunk.asIntBuffer().put((int[]) javaArray, 0, count);
+            } else if (elementType == long.class) {
+                chunk.asLongBuffer().put((long[]) javaArray, 0, count);
+            } else if (elementType == float.class) {
+                chunk.asFloatBuffer().put((float[]) javaArray, 0, count);
+            } else if (elementType == double.class) {
+                chunk.asDoubleBuffer().put((double[]) javaArray, 0, count);
+            } else {
+                throw new AssertionError("Unsupported element type " + elementType);
+            }
+            chunk.position(0).limit(count * bytesPerElement);
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+            position += count;
+        }
     }
 
     public JsonObject createMetadata(SNumbers numbers, String[] columnNames) {
@@ -264,7 +357,7 @@ public final class WriteRawNumbers extends WriteFileOperation implements ReadOnl
         Objects.requireNonNull(numbers, "Null numbers");
         final JsonObjectBuilder builder = Json.createObjectBuilder();
         builder.add("blockLength", numbers.getBlockLength());
-        builder.add("n", numbers.n());
+        builder.add("n", numbers.longN());
         builder.add("elementType", numbers.elementType().getSimpleName());
         builder.add("byteOrder", byteOrder.name());
         builder.add("order", byteOrder.order().toString());
@@ -25,13 +25,14 @@
 package net.algart.executors.modules.core.scalars.io;
 
 import net.algart.executors.api.LogLevel;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.data.SScalar;
 import net.algart.executors.modules.core.common.io.FileOperation;
 import net.algart.executors.modules.core.common.scalars.ScalarFilter;
 
 import java.util.function.Supplier;
 
-public final class PrintScalar extends ScalarFilter {
+public final class PrintScalar extends ScalarFilter implements NonDeterministicExecution {
     public static final String S = "s";
     public static final String X = "x";
     public static final String M = "m";
@@ -25,8 +25,9 @@
 package net.algart.executors.modules.core.system;
 
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 
-public final class Gc extends Executor {
+public final class Gc extends Executor implements NonDeterministicExecution {
     private boolean doAction = true;
 
     public Gc() {
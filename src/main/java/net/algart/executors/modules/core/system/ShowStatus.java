@@ -27,10 +27,11 @@ package net.algart.executors.modules.core.system;
 import net.algart.executors.api.ExecutionBlock;
 import net.algart.executors.api.ExecutionStatus;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.data.SScalar;
 import net.algart.executors.modules.core.common.scalars.ScalarFilter;
 
-public final class ShowStatus extends ScalarFilter {
+public final class ShowStatus extends ScalarFilter implements NonDeterministicExecution {
     public static final String OUTPUT_STATUS_JSON = "status_json";
     public static final String OUTPUT_ROOT_STATUS_JSON = "root_status_json";
     public static final String S1 = "s";
@@ -26,6 +26,7 @@ package net.algart.executors.modules.core.system;
 
 import net.algart.bridges.jep.api.JepPlatforms;
 import net.algart.executors.api.Executor;
+import net.algart.executors.api.NonDeterministicExecution;
 import net.algart.executors.api.ReadOnlyExecutionInput;
 import net.algart.executors.api.extensions.ExtensionSpecification;
 import net.algart.executors.api.extensions.InstalledExtensions;
@@ -40,7 +41,7 @@ import java.util.Collection;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
-public final class SystemInformation extends Executor implements ReadOnlyExecutionInput {
+public final class SystemInformation extends Executor implements ReadOnlyExecutionInput, NonDeterministicExecution {
     public static final String OUTPUT_CURRENT_DIRECTORY = "current_directory";
     public static final String OUTPUT_SESSION_ID = "session_id";
     public static final String OUTPUT_CONTEXT_ID = "context_id";
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.system.tests;
+
+import net.algart.executors.api.ExecutionBlock;
+import net.algart.executors.api.chains.Chain;
+import net.algart.executors.api.chains.ChainSpecification;
+import net.algart.executors.api.data.Data;
+import net.algart.executors.api.system.ExecutorFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class AsyncExecutingChainTest {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.printf("Usage: %s some_chain.json number_of_requests%n" +
+                            "The chain should not require any input data; the last request is cancelled.",
+                    AsyncExecutingChainTest.class.getName());
+            return;
+        }
+        final Path chainPath = Paths.get(args[0]);
+        final int numberOfRequests = Integer.parseInt(args[1]);
+        ExecutionBlock.initializeExecutionSystem();
+        ChainSpecification chainSpecification = ChainSpecification.read(chainPath);
+        final ExecutorFactory executorFactory = ExecutorFactory.newDefaultInstance("MySession");
+        try (Chain chain = Chain.of(null, executorFactory, chainSpecification)) {
+            chain.reinitializeAll();
+            final List<CompletableFuture<Map<String, Data>>> futures = new ArrayList<>();
+            long t1 = System.nanoTime();
+            for (int k = 0; k < numberOfRequests; k++) {
+                futures.add(chain.executeAsync(Map.of()));
+            }
+            long t2 = System.nanoTime();
+            System.out.printf("%d requests submitted in %.3f ms%n", numberOfRequests, (t2 - t1) * 1e-6);
+            if (!futures.isEmpty()) {
+                final boolean cancelled = futures.get(futures.size() - 1).cancel(true);
+                System.out.printf("Cancelling the last request: %s%n", cancelled);
+            }
+            for (int k = 0; k < futures.size(); k++) {
+                try {
+                    final Map<String, Data> outputs = futures.get(k).join();
+                    System.out.printf("Request #%d finished: %s%n", k, outputs.keySet());
+                } catch (CancellationException e) {
+                    System.out.printf("Request #%d cancelled%n", k);
+                } catch (CompletionException e) {
+                    System.out.printf("Request #%d failed: %s%n", k, e.getCause());
+                }
+            }
+            long t3 = System.nanoTime();
+            System.out.printf("All requests finished in %.3f ms%n", (t3 - t1) * 1e-6);
+        }
+    }
+}
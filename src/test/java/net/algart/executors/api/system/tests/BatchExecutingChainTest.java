@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.algart.executors.api.system.tests;
+
+import net.algart.executors.api.ExecutionBlock;
+import net.algart.executors.api.chains.Chain;
+import net.algart.executors.api.chains.ChainBatchResult;
+import net.algart.executors.api.chains.ChainSpecification;
+import net.algart.executors.api.data.Data;
+import net.algart.executors.api.system.ExecutorFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class BatchExecutingChainTest {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.printf("Usage: %s some_chain.json number_of_input_sets parallelism [number_of_tests]%n" +
+                            "The chain should not require any input data.",
+                    BatchExecutingChainTest.class.getName());
+            return;
+        }
+        final Path chainPath = Paths.get(args[0]);
+        final int numberOfInputSets = Integer.parseInt(args[1]);
+        final int parallelism = Integer.parseInt(args[2]);
+        final int numberOfTests = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        ExecutionBlock.initializeExecutionSystem();
+        ChainSpecification chainSpecification = ChainSpecification.read(chainPath);
+        final ExecutorFactory executorFactory = ExecutorFactory.newDefaultInstance("MySession");
+        try (Chain chain = Chain.of(null, executorFactory, chainSpecification)) {
+            final List<Map<String, Data>> inputs = Collections.nCopies(numberOfInputSets, Map.of());
+            for (int test = 1; test <= numberOfTests; test++) {
+                long t1 = System.nanoTime();
+                final List<ChainBatchResult> results = chain.executeBatch(inputs, parallelism);
+                long t2 = System.nanoTime();
+                final long failed = results.stream().filter(r -> !r.isSuccess()).count();
+                System.out.printf("Test #%d: %d input sets processed in %.3f ms (%.3f ms/set), %d failed%n",
+                        test, results.size(), (t2 - t1) * 1e-6, (t2 - t1) * 1e-6 / Math.max(1, results.size()),
+                        failed);
+                if (!results.isEmpty()) {
+                    System.out.printf("  First result: %s%n", results.get(0));
+                }
+            }
+            System.out.println(chain.pool());
+        }
+    }
+}
@@ -36,8 +36,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 public class SimpleExecutingChainTest {
-    private static void executeChainAsExecutor(Path chainPath) throws IOException {
+    private static void executeChainAsExecutor(Path chainPath, boolean inline) throws IOException {
         try (ExecutionBlock executor = UseSubChain.getSessionInstance("MySession")
+                .setInline(inline)
                 .toExecutor(chainPath, InstantiationMode.REQUEST_ALL)) {
             executor.execute();
             System.out.println("Executor finished: " + executor);
@@ -56,13 +57,18 @@ public class SimpleExecutingChainTest {
 
     public static void main(String[] args) throws IOException {
         boolean lowLevel = false;
+        boolean inline = false;
         int startArgIndex = 0;
         if (args.length > startArgIndex && args[startArgIndex].equalsIgnoreCase("-lowLevel")) {
             lowLevel = true;
             startArgIndex++;
         }
+        if (args.length > startArgIndex && args[startArgIndex].equalsIgnoreCase("-inline")) {
+            inline = true;
+            startArgIndex++;
+        }
         if (args.length < startArgIndex + 1) {
-            System.out.printf("Usage: %s [-lowLevel] some_chain.json%n" +
+            System.out.printf("Usage: %s [-lowLevel] [-inline] some_chain.json%n" +
                             "The chain should not require any input data: " +
                             "this test does not set inputs and does not analyse outputs.",
                     SimpleExecutingChainTest.class.getName());
@@ -73,7 +79,7 @@ public class SimpleExecutingChainTest {
         if (lowLevel) {
             executeChainDirectly(chainPath);
         } else {
-            executeChainAsExecutor(chainPath);
+            executeChainAsExecutor(chainPath, inline);
         }
 
     }
@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.api.system.tests;
+
+import net.algart.executors.api.ExecutionBlock;
+import net.algart.executors.api.chains.Chain;
+import net.algart.executors.api.chains.ChainSpecification;
+import net.algart.executors.api.chains.ChainTrace;
+import net.algart.executors.api.system.ExecutorFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class TracingChainTest {
+    public static void main(String[] args) throws IOException {
+        int startArgIndex = 0;
+        boolean singleThread = false;
+        if (args.length > startArgIndex && args[startArgIndex].equalsIgnoreCase("-singleThread")) {
+            singleThread = true;
+            startArgIndex++;
+        }
+        if (args.length < startArgIndex + 2) {
+            System.out.printf("Usage: %s [-singleThread] some_chain.json result_trace.json [number_of_tests]%n" +
+                            "The chain should not require any input data; " +
+                            "the trace of the last execution is saved in Chrome Trace Event format.",
+                    TracingChainTest.class.getName());
+            return;
+        }
+        final Path chainPath = Paths.get(args[startArgIndex]);
+        final Path tracePath = Paths.get(args[startArgIndex + 1]);
+        final int numberOfTests = args.length > startArgIndex + 2 ? Integer.parseInt(args[startArgIndex + 2]) : 3;
+        ExecutionBlock.initializeExecutionSystem();
+        ChainSpecification chainSpecification = ChainSpecification.read(chainPath);
+        final ExecutorFactory executorFactory = ExecutorFactory.newDefaultInstance("MySession");
+        try (Chain chain = Chain.of(null, executorFactory, chainSpecification)) {
+            chain.setTracing(true);
+            if (singleThread) {
+                chain.setMultithreading(false);
+            }
+            chain.reinitializeAll();
+            for (int test = 1; test <= numberOfTests; test++) {
+                chain.execute();
+                final ChainTrace trace = chain.lastTrace();
+                System.out.printf("Test #%d: %s%n%s", test, trace, trace.criticalPathInfo());
+                chain.freeData();
+            }
+            chain.lastTrace().writeChromeTrace(tracePath);
+            System.out.printf("Trace saved in %s%n", tracePath);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017-2025 Daniel Alievsky, AlgART Laboratory (http://algart.net)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package net.algart.executors.modules.core.numbers;
+
+import net.algart.executors.api.data.SNumbers;
+import net.algart.executors.modules.core.numbers.arithmetic.NumbersNegate;
+import net.algart.executors.modules.core.numbers.io.ReadRawNumbers;
+import net.algart.executors.modules.core.numbers.io.WriteRawNumbers;
+
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public final class ReadRawNumbersMappingTest {
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.printf("Usage: %s file.raw [numberOfBlocks]%n", ReadRawNumbersMappingTest.class.getName());
+            return;
+        }
+        final Path file = Paths.get(args[0]);
+        final int n = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        final float[] values = new float[3 * n];
+        for (int k = 0; k < values.length; k++) {
+            values[k] = k * 0.5f;
+        }
+        final SNumbers source = SNumbers.ofArray(values, 3);
+        WriteRawNumbers.getInstance().setFile(file.toString()).setWriteMetadataFile(true).writeRaw(source);
+        System.out.printf("%s written to %s%n", source, file);
+
+        final SNumbers mapped = ReadRawNumbers.getInstance()
+                .setFile(file)
+                .setMemoryMapping(true)
+                .readRaw();
+        System.out.printf("Read with memory mapping: %s%n", mapped);
+        // - ordinary consumer, requiring usual Java array
+        final SNumbers negated = new NumbersNegate().process(mapped);
+        System.out.printf("Negated: %s%n", negated);
+        final float[] result = negated.toFloatArray();
+        for (int k = 0; k < values.length; k++) {
+            if (result[k] != -values[k]) {
+                throw new AssertionError("Bug: " + result[k] + " != " + -values[k] + " at " + k);
+            }
+        }
+
+        final SNumbers large;
+        try {
+            large = ReadRawNumbers.mapRaw(file, ByteOrder.BIG_ENDIAN, float.class, 3);
+        } catch (java.io.IOException e) {
+            throw new java.io.IOError(e);
+        }
+        System.out.printf("Mapped large array: %s%n", large);
+        if (!large.isLarge()) {
+            throw new AssertionError("Bug: mapRaw result is not large");
+        }
+        final Path copy = Paths.get(file + "-copy");
+        WriteRawNumbers.getInstance().setFile(copy.toString()).setWriteMetadataFile(true).writeRaw(large);
+        final SNumbers copied = ReadRawNumbers.getInstance().setFile(copy).readRaw();
+        if (!java.util.Arrays.equals(copied.toFloatArray(), values)) {
+            throw new AssertionError("Bug: " + copy + " differs from " + file);
+        }
+        System.out.printf("Large array written to %s and checked%n", copy);
+    }
+}